@@ -0,0 +1,37 @@
+package io.econexion.benchmarks;
+
+import java.util.UUID;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.econexion.EconexionLabApplication;
+
+/**
+ * Arranca la aplicación completa sobre una base H2 en memoria propia, sin puerto fijo y
+ * con el log reducido, para medir los servicios con la misma configuración que en producción.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * {@code properties} van como argumentos {@code --clave=valor}: así pisan también lo que fija
+     * application.yml (las propiedades por defecto del builder no lo harían).
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        String[] args = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            args[i] = "--" + properties[i];
+        }
+        return new SpringApplicationBuilder(EconexionLabApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false")
+                .run(args);
+    }
+}
@@ -0,0 +1,110 @@
+package io.econexion.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import io.econexion.chat.dto.ConversationPageDTO;
+import io.econexion.chat.dto.MessageDTO;
+import io.econexion.chat.dto.MessagePageDTO;
+import io.econexion.chat.service.ChatService;
+
+/**
+ * Camino caliente del chat sobre H2: enviar un mensaje, leer la última página y una página
+ * profunda del historial, y listar el inbox.
+ * <p>
+ * {@code conversations} es el número de conversaciones del usuario que lista el inbox y
+ * {@code history} el número de mensajes de la conversación más activa. Con el inbox paginado
+ * por índice el coste de listConversations no debería crecer con ninguno de los dos, ni el de
+ * las páginas de mensajes con {@code history}. Con {@code history=10} todo cabe en una página:
+ * listMessagesDeep lee la última, igual que listMessagesLatest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatBenchmark {
+
+    private static final long USER = 1L;
+    private static final int BATCH = 500;
+
+    @Param({"10", "1000"})
+    public int conversations;
+
+    @Param({"10", "10000", "100000"})
+    public int history;
+
+    private ConfigurableApplicationContext context;
+    private ChatService chatService;
+    private Long hotConversation;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        chatService = context.getBean(ChatService.class);
+
+        for (long i = 0; i < conversations; i++) {
+            Long id = chatService.getOrCreateConversation(i + 1, USER, USER + 1 + i);
+            chatService.sendMessage(id, USER + 1 + i, "Hola, ¿sigue disponible el lote " + i + "?");
+            if (hotConversation == null) {
+                hotConversation = id;
+            }
+        }
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            batch.add("Mensaje de historial número " + i + " con un texto de longitud realista para el chat");
+        }
+        for (int sent = 0; sent < history; sent += BATCH) {
+            chatService.sendMessages(hotConversation, USER, batch.subList(0, Math.min(BATCH, history - sent)));
+        }
+        // Cursor a mitad del historial, para medir páginas profundas; null si cabe en una página
+        String cursor = null;
+        for (int i = 0; i < history / 100; i++) {
+            cursor = chatService.listMessages(hotConversation, cursor, null, 50).getNextCursor();
+        }
+        deepCursor = cursor;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MessageDTO sendMessage() {
+        return chatService.sendMessage(hotConversation, USER, "¿Podemos cerrar el trato mañana?");
+    }
+
+    @Benchmark
+    public MessagePageDTO listMessagesLatest() {
+        return chatService.listMessages(hotConversation, null, null, 50);
+    }
+
+    @Benchmark
+    public MessagePageDTO listMessagesDeep() {
+        return chatService.listMessages(hotConversation, deepCursor, null, 50);
+    }
+
+    @Benchmark
+    public ConversationPageDTO listConversations() {
+        return chatService.listConversations(USER, null, 20);
+    }
+}
@@ -0,0 +1,88 @@
+package io.econexion.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Latencias por escenario en histogramas HdrHistogram (microsegundos, 3 cifras significativas),
+ * más el recuento de respuestas con error (status distinto de 2xx o fallo de conexión).
+ */
+final class LatencyStats {
+
+    private static final long MAX_LATENCY_US = 60_000_000L;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    void record(String scenario, long latencyNanos, boolean ok) {
+        Entry e = entries.computeIfAbsent(scenario, s -> new Entry());
+        e.histogram.recordValue(Math.min(MAX_LATENCY_US, Math.max(1, latencyNanos / 1000)));
+        if (!ok) {
+            e.errors.increment();
+        }
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%-24s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+        report(seconds).forEach((name, r) -> out.printf("%-24s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, r.get("requests"), r.get("errors"), r.get("throughput"), r.get("p50Ms"), r.get("p90Ms"),
+                r.get("p99Ms"), r.get("p999Ms"), r.get("maxMs")));
+    }
+
+    void writeJson(Path file, Map<String, Object> config, double seconds) throws IOException {
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("config", config);
+        doc.put("durationSeconds", seconds);
+        doc.put("scenarios", report(seconds));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), doc);
+    }
+
+    private Map<String, Map<String, Object>> report(double seconds) {
+        Map<String, Map<String, Object>> report = new TreeMap<>();
+        Histogram total = new Histogram(MAX_LATENCY_US, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Histogram h = e.getValue().histogram.copy();
+            long errors = e.getValue().errors.sum();
+            total.add(h);
+            totalErrors += errors;
+            report.put(e.getKey(), row(h, errors, seconds));
+        }
+        if (entries.size() > 1) {
+            report.put("~all", row(total, totalErrors, seconds));
+        }
+        return report;
+    }
+
+    private static Map<String, Object> row(Histogram h, long errors, double seconds) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("requests", h.getTotalCount());
+        r.put("errors", errors);
+        r.put("throughput", h.getTotalCount() / seconds);
+        r.put("p50Ms", h.getValueAtPercentile(50) / 1000.0);
+        r.put("p90Ms", h.getValueAtPercentile(90) / 1000.0);
+        r.put("p99Ms", h.getValueAtPercentile(99) / 1000.0);
+        r.put("p999Ms", h.getValueAtPercentile(99.9) / 1000.0);
+        r.put("maxMs", h.getMaxValue() / 1000.0);
+        return r;
+    }
+
+    private static final class Entry {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(MAX_LATENCY_US, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,11 @@
+package io.econexion.benchmarks;
+
+import java.net.http.HttpRequest;
+import java.util.function.Supplier;
+
+/**
+ * Tipo de petición del tráfico de carga: nombre con el que se agrupan sus latencias, peso
+ * relativo dentro de la mezcla y generador de cada petición concreta.
+ */
+record LoadScenario(String name, int weight, Supplier<HttpRequest> request) {
+}
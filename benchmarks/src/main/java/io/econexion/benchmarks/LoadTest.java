@@ -0,0 +1,208 @@
+package io.econexion.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Generador de carga de lazo abierto contra la API HTTP.
+ * <p>
+ * Las peticiones salen a un ritmo fijo ({@code --rate} por segundo) sin esperar a que terminen
+ * las anteriores, y la latencia se mide desde el instante en que debía salir cada petición, no
+ * desde que salió. Así, si el servidor se atasca, las peticiones que se acumulan cuentan con
+ * todo su retraso en los percentiles (sin omisión coordinada).
+ * <p>
+ * Sin {@code --target} arranca la aplicación en este proceso sobre H2 y siembra usuarios, posts
+ * y conversaciones de chat antes de medir. Opciones:
+ * <pre>
+ *   --rate=200                peticiones por segundo
+ *   --duration=60s            duración de la medición (s, ms o m)
+ *   --warmup=10s              carga previa que no se mide
+ *   --mix=post-search:5,...   escenarios y pesos (por defecto todos, ver SyntheticTraffic)
+ *   --trace=file.ndjson       reproduce una traza en lugar del tráfico sintético
+ *   --target=http://host:port usa una instancia ya arrancada
+ *   --app-threads=virtual     hilos de Tomcat de la aplicación embebida (virtual o platform)
+ *   --seed-posts=5000 --seed-conversations=500 --seed-chat-users=200
+ *   --max-in-flight=10000     peticiones abiertas a la vez; las que no caben cuentan como error
+ *   --out=target/loadtest-result.json
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        Duration duration = duration(options.getOrDefault("duration", "60s"));
+        Duration warmup = duration(options.getOrDefault("warmup", "10s"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest-result.json"));
+
+        ConfigurableApplicationContext app = null;
+        URI base;
+        if (options.containsKey("target")) {
+            base = URI.create(options.get("target"));
+        } else {
+            boolean virtual = !"platform".equals(options.getOrDefault("app-threads", "virtual"));
+            app = BenchmarkContext.start("spring.threads.virtual.enabled=" + virtual);
+            base = URI.create("http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort());
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            Supplier<LoadScenario> traffic;
+            if (options.containsKey("trace")) {
+                traffic = TraceTraffic.load(Path.of(options.get("trace")), base);
+            } else {
+                SyntheticTraffic synthetic = new SyntheticTraffic(base, client);
+                synthetic.seed(Integer.parseInt(options.getOrDefault("seed-posts", "5000")),
+                        Integer.parseInt(options.getOrDefault("seed-conversations", "500")),
+                        Integer.parseInt(options.getOrDefault("seed-chat-users", "200")));
+                traffic = weighted(synthetic.scenarios(mix(options.get("mix"))));
+            }
+
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            if (!warmup.isZero()) {
+                System.out.printf("Warmup %ds at %d req/s%n", warmup.toSeconds(), rate);
+                run(client, traffic, rate, warmup, inFlight, new LatencyStats(), new LongAdder());
+            }
+            System.out.printf("Measuring %ds at %d req/s against %s%n", duration.toSeconds(), rate, base);
+            LatencyStats stats = new LatencyStats();
+            LongAdder rejected = new LongAdder();
+            run(client, traffic, rate, duration, inFlight, stats, rejected);
+            // Las que aún están en vuelo cuentan: se espera a que terminen
+            if (inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+                inFlight.release(maxInFlight);
+            } else {
+                System.out.println("Some requests were still in flight after 60s and are not included");
+            }
+
+            double seconds = duration.toNanos() / 1e9;
+            stats.print(System.out, seconds);
+            if (rejected.sum() > 0) {
+                System.out.printf("%d requests were not sent because %d were already in flight%n", rejected.sum(), maxInFlight);
+            }
+            Map<String, Object> config = new LinkedHashMap<>(options);
+            config.put("base", base.toString());
+            config.put("rejected", rejected.sum());
+            stats.writeJson(out, config, seconds);
+            System.out.println("Results written to " + out.toAbsolutePath());
+        } finally {
+            client.shutdownNow();
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private static void run(HttpClient client, Supplier<LoadScenario> traffic, int rate, Duration duration,
+            Semaphore inFlight, LatencyStats stats, LongAdder rejected) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long total = duration.toNanos() / intervalNanos;
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadScenario scenario = traffic.get();
+            if (!inFlight.tryAcquire()) {
+                rejected.increment();
+                stats.record(scenario.name(), System.nanoTime() - intended, false);
+                continue;
+            }
+            HttpRequest request;
+            try {
+                request = scenario.request().get();
+            } catch (RuntimeException e) {
+                inFlight.release();
+                stats.record(scenario.name(), System.nanoTime() - intended, false);
+                continue;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        stats.record(scenario.name(), System.nanoTime() - intended,
+                                error == null && response.statusCode() / 100 == 2);
+                        inFlight.release();
+                    });
+        }
+    }
+
+    private static Supplier<LoadScenario> weighted(List<LoadScenario> scenarios) {
+        int[] cumulative = new int[scenarios.size()];
+        int sum = 0;
+        for (int i = 0; i < scenarios.size(); i++) {
+            sum += scenarios.get(i).weight();
+            cumulative[i] = sum;
+        }
+        int totalWeight = sum;
+        return () -> {
+            int r = ThreadLocalRandom.current().nextInt(totalWeight);
+            int i = 0;
+            while (cumulative[i] <= r) {
+                i++;
+            }
+            return scenarios.get(i);
+        };
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return weights;
+        }
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights.put(kv[0], kv.length > 1 ? Integer.parseInt(kv[1]) : 1);
+        }
+        return weights;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,94 @@
+package io.econexion.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.econexion.service.OfferExpiryScheduler;
+
+/**
+ * Una pasada del expirador con {@link #DUE} ofertas vencidas entre {@code live} ofertas
+ * pendientes que aún no vencen. El tiempo debería depender de las vencidas y no de {@code live}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OfferExpiryBenchmark {
+
+    private static final UUID SELLER = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final int POSTS = 100;
+    private static final int DUE = 2_000;
+
+    @Param({"10000", "500000"})
+    public int live;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private OfferExpiryScheduler expiryScheduler;
+    private UUID[] postIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Sin pasadas programadas: solo las que lanza el benchmark
+        context = BenchmarkContext.start("econexion.offers.expiry.interval-ms=0");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        expiryScheduler = context.getBean(OfferExpiryScheduler.class);
+
+        jdbcTemplate.update("insert into users (id, name, email, role) values (?, 'seller', 'seller@econexion.test', 'SELLER')", SELLER);
+        postIds = new UUID[POSTS];
+        for (int i = 0; i < POSTS; i++) {
+            postIds[i] = UUID.randomUUID();
+            jdbcTemplate.update("insert into publications (id, title, material, quantity, price, location, user_id) " +
+                    "values (?, ?, 'PET', 100, 850.5, 'Bogotá', ?)", postIds[i], "Cartón corrugado lote " + i, SELLER);
+        }
+        insertOffers(live, LocalDateTime.now().plusDays(7));
+    }
+
+    @Setup(Level.Invocation)
+    public void seedDue() {
+        insertOffers(DUE, LocalDateTime.now().minusMinutes(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int expireDue() {
+        return expiryScheduler.expireDue();
+    }
+
+    private void insertOffers(int count, LocalDateTime expiresAt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), 800.0 + i % 100, now, expires, postIds[i % POSTS], SELLER});
+        }
+        jdbcTemplate.batchUpdate("insert into offers (id, amount, message, date, status, expires_at, publication_id, user_id) " +
+                "values (?, ?, 'Me interesa el lote', ?, 'PENDING', ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,187 @@
+package io.econexion.benchmarks;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.econexion.model.Offer;
+import io.econexion.model.OfferStatus;
+import io.econexion.repository.OfferRepository;
+import io.econexion.repository.PostRepository;
+import io.econexion.service.OfferService;
+
+/**
+ * Aceptar/rechazar ofertas con varios hilos compitiendo por las mismas ofertas.
+ * <p>
+ * Cada {@code contenders} llamadas consecutivas (de hilos distintos) van a la misma oferta
+ * pendiente, alternando ACCEPTED y REJECTED: una gana y el resto debería acabar en conflicto
+ * (409 en la API). {@code conditionalUpdate} es {@code OfferService.changeStatus}, un UPDATE
+ * condicional; {@code readModifyWrite} lee la entidad, cambia el estado y hace flush, y solo
+ * detecta el conflicto por la {@code @Version} al escribir. Los contadores {@code applied} y
+ * {@code conflicts} salen en el resultado: con {@code contenders=1} no debería haber conflictos
+ * y en ningún caso más de un {@code applied} por oferta.
+ * <p>
+ * Cada oferta pide una unidad del lote, así que aceptar también reserva cantidad en el post;
+ * con {@code posts=1} todos los hilos compiten por la misma fila de {@code publications}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class OfferStatusBenchmark {
+
+    private static final UUID SELLER = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final UUID BUYER = UUID.fromString("00000000-0000-0000-0000-0000000000b1");
+    // Ofertas pendientes por iteración; de sobra para no agotarlas en 2 s
+    private static final int OFFERS = 100_000;
+
+    @Param({"1", "8"})
+    public int contenders;
+
+    // Posts entre los que se reparten las ofertas; con 1 todas las transiciones ajustan la misma fila
+    @Param({"1", "64"})
+    public int posts;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private OfferService offerService;
+    private OfferRepository offerRepository;
+    private PostRepository postRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private UUID[] postIds;
+    private UUID[] offers;
+    private final AtomicInteger ticket = new AtomicInteger();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long applied;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            applied = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Hibernate registra como ERROR cada conflicto de versión de readModifyWrite
+        context = BenchmarkContext.start("logging.level.org.hibernate.orm.jdbc.batch=OFF");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        offerService = context.getBean(OfferService.class);
+        offerRepository = context.getBean(OfferRepository.class);
+        postRepository = context.getBean(PostRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        jdbcTemplate.update("insert into users (id, name, email, role) values (?, 'seller', 'seller@econexion.test', 'SELLER')", SELLER);
+        jdbcTemplate.update("insert into users (id, name, email, role) values (?, 'buyer', 'buyer@econexion.test', 'BUYER')", BUYER);
+        postIds = new UUID[posts];
+        for (int i = 0; i < posts; i++) {
+            postIds[i] = UUID.randomUUID();
+            jdbcTemplate.update("insert into publications (id, title, material, quantity, price, location, user_id) " +
+                    "values (?, ?, 'PET', 100, 850.5, 'Bogotá', ?)", postIds[i], "Botellas PET compactadas " + i, SELLER);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void seedOffers() {
+        offers = new UUID[OFFERS];
+        List<Object[]> rows = new ArrayList<>(OFFERS);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < OFFERS; i++) {
+            offers[i] = UUID.randomUUID();
+            rows.add(new Object[]{offers[i], 800.0 + i % 100, now, postIds[i % posts], BUYER});
+        }
+        jdbcTemplate.batchUpdate("insert into offers (id, amount, quantity, message, date, status, publication_id, user_id) " +
+                "values (?, ?, 1, 'Me interesa el lote', ?, 'PENDING', ?, ?)", rows);
+        // Cantidad de sobra: aquí se mide la reserva, no el lote agotado
+        jdbcTemplate.update("update publications p set quantity = " + OFFERS + ", " +
+                "offer_count = (select count(*) from offers o where o.publication_id = p.id), " +
+                "pending_offer_count = (select count(*) from offers o where o.publication_id = p.id and o.status = 'PENDING')");
+        ticket.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void conditionalUpdate(Outcomes outcomes) {
+        int n = ticket.getAndIncrement();
+        try {
+            offerService.changeStatus(offerFor(n), target(n), null);
+            outcomes.applied++;
+        } catch (OptimisticLockingFailureException e) {
+            outcomes.conflicts++;
+        }
+    }
+
+    @Benchmark
+    public void readModifyWrite(Outcomes outcomes) {
+        int n = ticket.getAndIncrement();
+        UUID id = offerFor(n);
+        OfferStatus target = target(n);
+        try {
+            boolean applied = transactionTemplate.execute(status -> {
+                Offer offer = offerRepository.findById(id).orElseThrow();
+                if (!offer.getStatus().canTransitionTo(target)) {
+                    return false;
+                }
+                offer.setStatus(target);
+                offerRepository.flush();
+                if (target == OfferStatus.ACCEPTED) {
+                    postRepository.reserveForOffer(id, -1);
+                } else {
+                    postRepository.adjustPendingOffers(id, -1);
+                }
+                return true;
+            });
+            if (applied) {
+                outcomes.applied++;
+            } else {
+                outcomes.conflicts++;
+            }
+        } catch (OptimisticLockingFailureException e) {
+            outcomes.conflicts++;
+        }
+    }
+
+    private UUID offerFor(int n) {
+        return offers[(n / contenders) % OFFERS];
+    }
+
+    private static OfferStatus target(int n) {
+        return n % 2 == 0 ? OfferStatus.ACCEPTED : OfferStatus.REJECTED;
+    }
+}
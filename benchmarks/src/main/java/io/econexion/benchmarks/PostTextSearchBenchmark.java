@@ -0,0 +1,101 @@
+package io.econexion.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import io.econexion.dtos.PostSummaryDTO;
+import io.econexion.imports.PostImportService;
+import io.econexion.model.User;
+import io.econexion.repository.PostRepository;
+import io.econexion.search.PostTextIndex;
+import io.econexion.service.PostService;
+import io.econexion.service.UserService;
+
+/**
+ * Búsqueda de texto: índice invertido en memoria frente al LIKE que se usa mientras el
+ * índice se construye. Los posts se cargan con el importador masivo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostTextSearchBenchmark {
+
+    private static final String[] TITLES = {
+            "Botellas PET compactadas", "Cartón corrugado en pacas", "Vidrio ámbar triturado",
+            "Chatarra de aluminio", "Plástico PEAD soplado", "Papel de archivo blanco"};
+
+    @Param({"10000", "100000"})
+    public int posts;
+
+    // Una consulta con muchos resultados y otra con un término que aparece en 1 de cada 1000 posts
+    @Param({"botellas pet", "prensado"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostRepository postRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        postService = context.getBean(PostService.class);
+        postRepository = context.getBean(PostRepository.class);
+        User owner = context.getBean(UserService.class).create(new User("coop@econexion.test", "Cooperativa", "SELLER"));
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < posts; i++) {
+            ndjson.append("{\"title\":\"").append(TITLES[i % TITLES.length]).append(" lote ").append(i)
+                    .append("\",\"material\":\"M").append(i % TITLES.length)
+                    .append("\",\"quantity\":10,\"price\":1,\"location\":\"Bogotá\",\"description\":\"")
+                    .append(i % 1000 == 0 ? "Aluminio prensado en bloques"
+                            : i % 7 == 0 ? "Botella de plástico en pacas" : "Material clasificado en bodega")
+                    .append("\"}\n");
+        }
+        context.getBean(PostImportService.class).importPosts(owner.getId(),
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), false,
+                OutputStream.nullOutputStream());
+
+        PostTextIndex index = context.getBean(PostTextIndex.class);
+        while (!index.isReady()) {
+            Thread.sleep(50);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostSummaryDTO> invertedIndex() {
+        return postService.searchText(query, 20);
+    }
+
+    @Benchmark
+    public List<PostSummaryDTO> sqlLike() {
+        return postRepository.searchTextFallback("%" + query + "%", Limit.of(20));
+    }
+}
@@ -0,0 +1,156 @@
+package io.econexion.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.econexion.chat.ChatMessage;
+import io.econexion.chat.dto.ConversationPageDTO;
+import io.econexion.chat.dto.ConversationSummaryDTO;
+import io.econexion.chat.dto.MessageDTO;
+import io.econexion.chat.dto.MessagePageDTO;
+import io.econexion.dtos.PostPageDTO;
+import io.econexion.dtos.PostSummaryDTO;
+import io.econexion.model.Offer;
+import io.econexion.model.OfferStatus;
+import io.econexion.model.Post;
+import io.econexion.model.User;
+
+/**
+ * Mapeo entidad → DTO y serialización JSON de las respuestas más frecuentes, sin base de
+ * datos. Compara el grafo completo de {@code Post} (dueño y ofertas con sus referencias
+ * gestionadas) con la proyección {@link PostSummaryDTO} que usan los listados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int PAGE = 20;
+    private static final int OFFERS_PER_POST = 10;
+
+    private ObjectMapper objectMapper;
+    private List<Post> posts;
+    private PostPageDTO postPage;
+    private List<ChatMessage> messages;
+    private MessagePageDTO messagePage;
+    private ConversationPageDTO conversationPage;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración por defecto que aplica Spring Boot a su ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        posts = new ArrayList<>();
+        List<PostSummaryDTO> summaries = new ArrayList<>();
+        for (int i = 0; i < PAGE; i++) {
+            User owner = user("seller" + i);
+            Post post = new Post();
+            post.setId(UUID.randomUUID());
+            post.setTitle("Botellas PET compactadas lote " + i);
+            post.setMaterial("PET");
+            post.setQuantity(120 + i);
+            post.setPrice(850.5);
+            post.setLocation("Bogotá");
+            post.setDescription("Pacas de botellas PET transparentes, limpias y sin etiqueta. Entrega en bodega.");
+            post.setOwner(owner);
+            for (int j = 0; j < OFFERS_PER_POST; j++) {
+                post.getOffers().add(Offer.builder()
+                        .id(UUID.randomUUID())
+                        .amount(800 + j)
+                        .message("Me interesa el lote, ¿incluye transporte?")
+                        .date(LocalDateTime.now())
+                        .status(OfferStatus.PENDING)
+                        .publication(post)
+                        .offerer(user("buyer" + j))
+                        .build());
+            }
+            posts.add(post);
+            summaries.add(new PostSummaryDTO(post.getId(), post.getTitle(), post.getMaterial(), post.getQuantity(),
+                    post.getPrice(), post.getLocation(), owner.getId(), post.getOffers().size(), post.getOffers().size(),
+                    post.getOffers().stream().mapToDouble(Offer::getAmount).sum(),
+                    post.getOffers().stream().mapToDouble(Offer::getAmount).max().orElse(0)));
+        }
+        postPage = new PostPageDTO(summaries, "Y3Vyc29y");
+
+        messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ChatMessage m = new ChatMessage();
+            m.setSenderId(i % 2 == 0 ? 1L : 2L);
+            m.setText("Mensaje " + i + ": ¿podemos acordar la recogida para el jueves en la mañana?");
+            m.setCreatedAt(Instant.now());
+            messages.add(m);
+        }
+        messagePage = mapMessages();
+
+        List<ConversationSummaryDTO> inbox = new ArrayList<>();
+        for (long i = 0; i < PAGE; i++) {
+            inbox.add(new ConversationSummaryDTO(i, i, 1L, 2L + i, Instant.now(), "¿Sigue disponible?",
+                    100L + i, 2L + i, Instant.now(), (int) (i % 3), 99L + i));
+        }
+        conversationPage = new ConversationPageDTO(inbox, "Y3Vyc29y");
+    }
+
+    private static User user(String name) {
+        User u = new User(name + "@econexion.test", name, "SELLER");
+        u.setId(UUID.randomUUID());
+        u.setEnterpriseName("Cooperativa " + name);
+        u.setNit("900123456");
+        return u;
+    }
+
+    /**
+     * El mismo mapeo que hace {@code ChatService.listMessages} con cada página.
+     */
+    @Benchmark
+    public MessagePageDTO mapMessages() {
+        List<MessageDTO> items = messages.stream()
+                .map(m -> new MessageDTO(m.getId(), m.getSenderId(), m.getText(), m.getCreatedAt()))
+                .toList();
+        return new MessagePageDTO(items, null);
+    }
+
+    @Benchmark
+    public byte[] serializePostEntityPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] serializePostSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    @Benchmark
+    public byte[] serializeMessagePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(messagePage);
+    }
+
+    @Benchmark
+    public byte[] serializeConversationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(conversationPage);
+    }
+}
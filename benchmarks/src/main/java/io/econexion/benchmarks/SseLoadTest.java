@@ -0,0 +1,347 @@
+package io.econexion.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.econexion.chat.service.ChatPushService;
+
+/**
+ * Prueba de escala del canal SSE del chat ({@code GET /api/chat/stream}) con la aplicación en
+ * este proceso sobre H2.
+ * <ol>
+ *   <li>Abre {@code --connections} suscripciones de usuarios distintos que solo reciben los
+ *       heartbeats, y comprueba que los hilos de plataforma del proceso no crecen con ellas
+ *       (una conexión abierta no ocupa hilo) y cuánta memoria de heap cuesta cada una.</li>
+ *   <li>Abre {@code --slow} conexiones de un usuario que no leen nada y una de su contraparte
+ *       que lee al día, y envía mensajes a su conversación al ritmo del lector rápido hasta
+ *       que el servidor descarta las lentas por buffer lleno. El lector rápido tiene que
+ *       recibirlos todos.</li>
+ *   <li>Cierra todas las conexiones desde el cliente y espera a que el servidor las suelte.</li>
+ * </ol>
+ * Imprime las medidas y termina con código 1 si alguna comprobación falla. Opciones:
+ * <pre>
+ *   --connections=5000         suscripciones en reposo
+ *   --slow=20                  conexiones lentas del mismo usuario
+ *   --message-chars=4000       tamaño de cada mensaje (los lentos se descartan al llenar los
+ *                              buffers de socket, unos MB en loopback, y el de la conexión)
+ *   --max-messages=5000        mensajes como mucho antes de dar por fallido el descarte
+ *   --buffer-size=16           econexion.chat.push.buffer-size de la aplicación
+ *   --heartbeat-ms=1000        econexion.chat.push.heartbeat-ms de la aplicación
+ *   --app-threads=virtual      hilos de Tomcat de la aplicación (virtual o platform)
+ *   --max-thread-growth=64     hilos de plataforma nuevos admitidos con todas las conexiones abiertas
+ *   --max-heap-per-connection-kb=192
+ * </pre>
+ * La memoria por conexión incluye también la del cliente HTTP, que corre en el mismo proceso:
+ * es una cota superior de la del servidor. Medidos por separado, unos 110 KB por conexión son
+ * del servidor (casi todo buffers de Tomcat de 8 KB por conexión) y unos 30 KB del cliente; lo
+ * que importa es que no crezca con los mensajes ni con el tiempo que la conexión lleva abierta.
+ */
+public final class SseLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final long IDLE_USERS = 1_000_000L;
+    private static final long SLOW_USER = 1L;
+    private static final long FAST_USER = 2L;
+    private static final int OPEN_BATCH = 500;
+
+    private final HttpClient client;
+    private final URI base;
+    private final List<Flow.Subscription> open = new ArrayList<>();
+    private boolean failed;
+
+    private SseLoadTest(HttpClient client, URI base) {
+        this.client = client;
+        this.base = base;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int connections = Integer.parseInt(options.getOrDefault("connections", "5000"));
+        int slow = Integer.parseInt(options.getOrDefault("slow", "20"));
+        int messageChars = Integer.parseInt(options.getOrDefault("message-chars", "4000"));
+        int maxMessages = Integer.parseInt(options.getOrDefault("max-messages", "5000"));
+        int bufferSize = Integer.parseInt(options.getOrDefault("buffer-size", "16"));
+        long heartbeatMs = Long.parseLong(options.getOrDefault("heartbeat-ms", "1000"));
+        boolean virtual = !"platform".equals(options.getOrDefault("app-threads", "virtual"));
+        int maxThreadGrowth = Integer.parseInt(options.getOrDefault("max-thread-growth", "64"));
+        long maxHeapPerConnection = Long.parseLong(options.getOrDefault("max-heap-per-connection-kb", "192")) * 1024;
+
+        // Spring registra como WARN cada cliente que se desconecta; al cerrar son miles
+        ConfigurableApplicationContext app = BenchmarkContext.start(
+                "logging.level.org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolver=ERROR",
+                "spring.threads.virtual.enabled=" + virtual,
+                "econexion.chat.push.buffer-size=" + bufferSize,
+                "econexion.chat.push.heartbeat-ms=" + heartbeatMs,
+                "server.tomcat.max-connections=" + (connections + slow + 1000));
+        URI base = URI.create("http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort());
+        ChatPushService push = app.getBean(ChatPushService.class);
+
+        // Pocos hilos en el cliente: el crecimiento de hilos que se mide debe ser el del servidor
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4, Thread.ofPlatform().daemon().factory());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        SseLoadTest test = new SseLoadTest(client, base);
+        try {
+            test.idleConnections(push, connections, heartbeatMs, maxThreadGrowth, maxHeapPerConnection);
+            test.slowConsumers(push, slow, messageChars, maxMessages, bufferSize);
+            test.disconnect(push, heartbeatMs);
+        } finally {
+            client.shutdownNow();
+            clientExecutor.shutdownNow();
+            app.close();
+        }
+        System.out.println(test.failed ? "FAILED" : "PASSED");
+        System.exit(test.failed ? 1 : 0);
+    }
+
+    private void idleConnections(ChatPushService push, int connections, long heartbeatMs,
+            int maxThreadGrowth, long maxHeapPerConnection) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        // Una conexión de calentamiento para que los hilos que se crean una sola vez ya existan
+        LineCounter warm = subscribe(IDLE_USERS - 1);
+        await("warm-up connection", () -> push.subscriberCount() == 1, Duration.ofSeconds(30));
+        long threadsBefore = threads.getThreadCount();
+        long heapBefore = usedHeap(memory);
+
+        long start = System.nanoTime();
+        List<LineCounter> idle = new ArrayList<>(connections);
+        // Por tandas: miles de conexiones a la vez desbordan la cola de accept de Tomcat
+        for (int i = 0; i < connections; i++) {
+            idle.add(subscribe(IDLE_USERS + i));
+            if (idle.size() % OPEN_BATCH == 0 || idle.size() == connections) {
+                int expected = idle.size() + 1;
+                if (!awaitQuietly(() -> push.subscriberCount() == expected || failed(idle) > 0, Duration.ofSeconds(60))
+                        || failed(idle) > 0) {
+                    throw new IllegalStateException(String.format("Only %d of %d subscriptions opened, %d failed%s",
+                            push.subscriberCount() - 1, idle.size(), failed(idle), idle.stream()
+                                    .filter(c -> c.error != null).findFirst().map(c -> ": " + c.error).orElse("")));
+                }
+            }
+        }
+        double openSeconds = (System.nanoTime() - start) / 1e9;
+        // Dos heartbeats: todas las conexiones deben seguir vivas y recibiéndolos
+        long pingsBefore = idle.stream().mapToLong(c -> c.pings.get()).sum();
+        Thread.sleep(2 * heartbeatMs + 500);
+        long reached = idle.stream().filter(c -> c.pings.get() > 0).count();
+
+        long threadGrowth = threads.getThreadCount() - threadsBefore;
+        long heapPerConnection = (usedHeap(memory) - heapBefore) / connections;
+        System.out.printf("Opened %d SSE connections in %.1fs; %d/%d got heartbeats (%d pings before waiting)%n",
+                connections, openSeconds, reached, connections, pingsBefore);
+        System.out.printf("Platform threads: %d -> %d (+%d, peak %d)%n",
+                threadsBefore, threadsBefore + threadGrowth, threadGrowth, threads.getPeakThreadCount());
+        System.out.printf("Heap per connection (client + server): %.1f KB%n", heapPerConnection / 1024.0);
+        check(reached == connections, "every idle connection receives heartbeats");
+        check(threadGrowth <= maxThreadGrowth, "platform threads grow by at most " + maxThreadGrowth);
+        check(heapPerConnection <= maxHeapPerConnection, "heap per connection at most " + maxHeapPerConnection / 1024 + " KB");
+        check(warm.pings.get() > 0, "warm-up connection receives heartbeats");
+    }
+
+    private void slowConsumers(ChatPushService push, int slow, int messageChars, int maxMessages, int bufferSize)
+            throws Exception {
+        long conversation = post("/api/chat/conversations",
+                Map.of("offerId", 1, "senderId", FAST_USER, "receiverId", SLOW_USER)).get("conversationId").asLong();
+        int before = push.subscriberCount();
+        for (int i = 0; i < slow; i++) {
+            subscribeWithoutReading();
+        }
+        LineCounter fast = subscribe(FAST_USER);
+        await("slow and fast subscriptions", () -> push.subscriberCount() == before + slow + 1, Duration.ofSeconds(30));
+
+        String text = "x".repeat(messageChars);
+        // Por tandas de medio buffer y esperando al lector rápido: él nunca llena el suyo
+        int batch = Math.max(1, bufferSize / 2);
+        int sent = 0;
+        long start = System.nanoTime();
+        while (push.hasSubscribers(SLOW_USER) && sent < maxMessages) {
+            post("/api/chat/conversations/" + conversation + "/messages/batch",
+                    Map.of("senderId", FAST_USER, "texts", Collections.nCopies(batch, text)));
+            sent += batch;
+            int expected = sent;
+            await("fast reader to catch up", () -> fast.messages.get() >= expected, Duration.ofSeconds(30));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d slow connections dropped after %d messages of %d chars in %.1fs; fast reader got %d%n",
+                slow, sent, messageChars, seconds, fast.messages.get());
+        check(!push.hasSubscribers(SLOW_USER), "slow connections are dropped when their buffer fills");
+        check(push.hasSubscribers(FAST_USER), "the fast reader stays connected");
+        check(fast.messages.get() == sent, "the fast reader receives every message");
+    }
+
+    private void disconnect(ChatPushService push, long heartbeatMs) throws InterruptedException {
+        open.forEach(Flow.Subscription::cancel);
+        // El servidor nota la desconexión al escribir el siguiente heartbeat
+        boolean released = awaitQuietly(() -> push.subscriberCount() == 0, Duration.ofMillis(10 * heartbeatMs + 10_000));
+        System.out.printf("After closing the clients the server holds %d subscriptions%n", push.subscriberCount());
+        check(released, "the server releases subscriptions of disconnected clients");
+    }
+
+    private LineCounter subscribe(long userId) {
+        LineCounter counter = new LineCounter();
+        client.sendAsync(stream(userId), HttpResponse.BodyHandlers.fromLineSubscriber(counter))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        counter.error = error;
+                    }
+                });
+        return counter;
+    }
+
+    private static long failed(List<LineCounter> counters) {
+        return counters.stream().filter(c -> c.error != null).count();
+    }
+
+    /**
+     * Conexión que pide un solo trozo del cuerpo y no vuelve a leer: el cliente deja de vaciar el
+     * socket y los envíos del servidor acaban bloqueados.
+     */
+    private void subscribeWithoutReading() {
+        client.sendAsync(stream(SLOW_USER), HttpResponse.BodyHandlers.fromSubscriber(new Flow.Subscriber<List<ByteBuffer>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                track(subscription);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        }));
+    }
+
+    private HttpRequest stream(long userId) {
+        return HttpRequest.newBuilder(base.resolve("/api/chat/stream?userId=" + userId))
+                .header("Accept", "text/event-stream")
+                .GET().build();
+    }
+
+    private JsonNode post(String path, Object body) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private synchronized void track(Flow.Subscription subscription) {
+        open.add(subscription);
+    }
+
+    private void check(boolean ok, String what) {
+        System.out.println((ok ? "  ok   " : "  FAIL ") + what);
+        failed |= !ok;
+    }
+
+    private static void await(String what, BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        if (!awaitQuietly(condition, timeout)) {
+            throw new IllegalStateException("Timed out after " + timeout.toSeconds() + "s waiting for " + what);
+        }
+    }
+
+    private static boolean awaitQuietly(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return true;
+    }
+
+    private static long usedHeap(MemoryMXBean memory) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Lector SSE que lo consume todo y cuenta eventos {@code message} y heartbeats.
+     */
+    private final class LineCounter implements Flow.Subscriber<String> {
+        final AtomicLong messages = new AtomicLong();
+        final AtomicLong pings = new AtomicLong();
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            track(subscription);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("event:message")) {
+                messages.incrementAndGet();
+            } else if (line.startsWith(":ping")) {
+                pings.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
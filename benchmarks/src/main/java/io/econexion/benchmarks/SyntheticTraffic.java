@@ -0,0 +1,173 @@
+package io.econexion.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tráfico sintético parecido al de la aplicación: altas de usuario, navegación de posts
+ * (filtros, texto y proximidad) y chat (crear conversación, enviar, leer historial e inbox).
+ * {@link #seed} crea antes los datos que esas peticiones necesitan.
+ */
+final class SyntheticTraffic {
+
+    static final String[] MATERIALS = {"PET", "CARTON", "VIDRIO", "ALUMINIO", "PEAD", "PAPEL"};
+    private static final String[] QUERIES = {"botellas pet", "carton corrugado", "vidrio", "chatarra aluminio", "papel archivo"};
+    // Bogotá, Medellín, Cali, Barranquilla
+    private static final double[][] CITIES = {{4.65, -74.08}, {6.24, -75.58}, {3.45, -76.53}, {10.96, -74.80}};
+
+    private final URI base;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<long[]> conversations = new ArrayList<>();
+    private int chatUsers;
+
+    SyntheticTraffic(URI base, HttpClient client) {
+        this.base = base;
+        this.client = client;
+    }
+
+    /**
+     * Crea un vendedor con {@code posts} posts (por importación masiva) y {@code conversations}
+     * conversaciones entre {@code chatUsers} usuarios de chat, con un mensaje cada una.
+     */
+    void seed(int posts, int conversations, int chatUsers) throws IOException, InterruptedException {
+        this.chatUsers = chatUsers;
+        JsonNode owner = send(post("/lab/users/addUser", Map.of(
+                "username", "Cooperativa de carga", "email", "seed-" + UUID.randomUUID() + "@load.test", "role", "SELLER")));
+        String ownerId = owner.get("id").asText();
+
+        StringBuilder ndjson = new StringBuilder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < posts; i++) {
+            String material = MATERIALS[i % MATERIALS.length];
+            double[] city = CITIES[i % CITIES.length];
+            ndjson.append(objectMapper.writeValueAsString(Map.of(
+                    "title", titleFor(material) + " lote " + i,
+                    "material", material,
+                    "quantity", random.nextInt(1, 500),
+                    "price", Math.round(random.nextDouble(100, 5000)),
+                    "location", "Ciudad " + (i % CITIES.length),
+                    "description", "Material clasificado, entrega en bodega",
+                    "latitude", city[0] + random.nextGaussian() * 0.2,
+                    "longitude", city[1] + random.nextGaussian() * 0.2))).append('\n');
+        }
+        HttpResponse<String> imported = client.send(HttpRequest.newBuilder(base.resolve("/posts/import?ownerId=" + ownerId))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .timeout(Duration.ofMinutes(10))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String[] events = imported.body().strip().split("\n");
+        System.out.println("Seeded posts: " + events[events.length - 1]);
+
+        for (int i = 0; i < conversations; i++) {
+            long a = 1 + random.nextInt(chatUsers);
+            long b = 1 + (a + random.nextInt(chatUsers - 1)) % chatUsers;
+            JsonNode created = send(post("/api/chat/conversations", Map.of("offerId", i + 1, "senderId", a, "receiverId", b)));
+            long id = created.get("conversationId").asLong();
+            this.conversations.add(new long[]{id, a, b});
+            send(post("/api/chat/conversations/" + id + "/messages", Map.of("senderId", a, "text", "Hola, ¿sigue disponible?")));
+        }
+        System.out.println("Seeded " + conversations + " chat conversations");
+    }
+
+    List<LoadScenario> scenarios(Map<String, Integer> weights) {
+        List<LoadScenario> all = List.of(
+                new LoadScenario("user-create", 2, () -> post("/lab/users/addUser", Map.of(
+                        "username", "Comprador", "email", "load-" + sequence.incrementAndGet() + "-" + UUID.randomUUID() + "@load.test",
+                        "role", "BUYER"))),
+                new LoadScenario("post-search", 20, () -> get("/posts/search?material=" + pick(MATERIALS)
+                        + "&sort=" + pick(new String[]{"price", "-price", "quantity"}) + "&limit=20")),
+                new LoadScenario("post-text", 10, () -> get("/posts/search/text?limit=20&q="
+                        + URLEncoder.encode(pick(QUERIES), StandardCharsets.UTF_8))),
+                new LoadScenario("post-nearby", 8, () -> {
+                    double[] city = CITIES[ThreadLocalRandom.current().nextInt(CITIES.length)];
+                    return get("/posts/nearby?lat=" + city[0] + "&lon=" + city[1] + "&radiusKm=30&limit=20");
+                }),
+                new LoadScenario("chat-create", 5, () -> {
+                    long a = 1 + ThreadLocalRandom.current().nextInt(chatUsers);
+                    long b = a % chatUsers + 1;
+                    return post("/api/chat/conversations", Map.of("offerId", 1_000_000 + sequence.incrementAndGet(),
+                            "senderId", a, "receiverId", b));
+                }),
+                new LoadScenario("chat-send", 20, () -> {
+                    long[] c = conversations.get(ThreadLocalRandom.current().nextInt(conversations.size()));
+                    return post("/api/chat/conversations/" + c[0] + "/messages", Map.of(
+                            "senderId", ThreadLocalRandom.current().nextBoolean() ? c[1] : c[2],
+                            "text", "¿Podemos acordar la recogida para el jueves?"));
+                }),
+                new LoadScenario("chat-messages", 20, () -> {
+                    long[] c = conversations.get(ThreadLocalRandom.current().nextInt(conversations.size()));
+                    return get("/api/chat/conversations/" + c[0] + "/messages?limit=50");
+                }),
+                new LoadScenario("chat-inbox", 15, () -> get("/api/chat/conversations?limit=20&userId="
+                        + (1 + ThreadLocalRandom.current().nextInt(chatUsers)))));
+        if (weights.isEmpty()) {
+            return all;
+        }
+        List<LoadScenario> selected = new ArrayList<>();
+        for (LoadScenario s : all) {
+            Integer w = weights.get(s.name());
+            if (w != null && w > 0) {
+                selected.add(new LoadScenario(s.name(), w, s.request()));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("--mix does not name any known scenario");
+        }
+        return selected;
+    }
+
+    private static String titleFor(String material) {
+        return switch (material) {
+            case "PET" -> "Botellas PET compactadas";
+            case "CARTON" -> "Cartón corrugado en pacas";
+            case "VIDRIO" -> "Vidrio triturado";
+            case "ALUMINIO" -> "Chatarra de aluminio";
+            case "PEAD" -> "Plástico PEAD soplado";
+            default -> "Papel de archivo";
+        };
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri() + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,55 @@
+package io.econexion.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reproduce una traza grabada: un objeto JSON por línea con {@code method}, {@code path},
+ * {@code body} opcional (JSON) y {@code name} opcional para agrupar latencias (por defecto
+ * el método y la ruta sin query). Las peticiones se envían en orden y la traza se repite
+ * al llegar al final; el ritmo lo marca {@code --rate}.
+ */
+final class TraceTraffic {
+
+    private TraceTraffic() {
+    }
+
+    static Supplier<LoadScenario> load(Path file, URI base) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<LoadScenario> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode entry = objectMapper.readTree(line);
+            String method = entry.path("method").asText("GET");
+            String path = entry.path("path").asText();
+            HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path));
+            if (entry.hasNonNull("body")) {
+                builder.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(entry.get("body"))));
+            } else {
+                builder.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            int q = path.indexOf('?');
+            String name = entry.path("name").asText(method + " " + (q < 0 ? path : path.substring(0, q)));
+            HttpRequest request = builder.build();
+            entries.add(new LoadScenario(name, 1, () -> request));
+        }
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Trace " + file + " is empty");
+        }
+        AtomicInteger next = new AtomicInteger();
+        return () -> entries.get(Math.floorMod(next.getAndIncrement(), entries.size()));
+    }
+}
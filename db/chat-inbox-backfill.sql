@@ -0,0 +1,22 @@
+-- Filas de chat_inbox para las conversaciones creadas antes de que existiera la tabla. El
+-- inbox se lee solo de chat_inbox: sin estas filas, una conversación anterior no aparece en el
+-- inbox de ninguno de sus participantes hasta que alguien envía un mensaje nuevo.
+--
+-- Una fila por participante y conversación, con el updated_at de la conversación y 0 no
+-- leídos. Ejecutar después del primer arranque con la tabla (ddl-auto=update la crea).
+-- Idempotente: no toca las filas que ya existen, como las de conversaciones con mensajes
+-- enviados desde el despliegue. PostgreSQL:
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f db/chat-inbox-backfill.sql
+
+begin;
+
+insert into chat_inbox (user_id, conversation_id, updated_at, unread_count)
+select c.participant1_id, c.id, c.updated_at, 0 from chat_conversations c
+on conflict (user_id, conversation_id) do nothing;
+
+-- Con participant1_id = participant2_id la fila ya existe y no se duplica
+insert into chat_inbox (user_id, conversation_id, updated_at, unread_count)
+select c.participant2_id, c.id, c.updated_at, 0 from chat_conversations c
+on conflict (user_id, conversation_id) do nothing;
+
+commit;
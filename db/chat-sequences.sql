@@ -0,0 +1,35 @@
+-- Secuencias de ids del chat para bases creadas cuando chat_messages y chat_conversations
+-- usaban IDENTITY. Ahora los ids salen de chat_messages_seq y chat_conversations_seq con el
+-- optimizador pooled de Hibernate (allocationSize = 50): cada nextval reserva los 50 ids que
+-- terminan en el valor devuelto, así que la secuencia debe incrementar de 50 en 50 y su
+-- siguiente valor quedar al menos 50 por encima del mayor id existente.
+--
+-- Con ddl-auto=update Hibernate crea las secuencias empezando en 1 y los primeros inserts
+-- chocan con las filas que ya existen. Ejecutar antes de desplegar, o justo después con la
+-- aplicación parada. Idempotente: nunca hace retroceder una secuencia. PostgreSQL:
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f db/chat-sequences.sql
+
+begin;
+
+create sequence if not exists chat_conversations_seq start with 1 increment by 50;
+create sequence if not exists chat_messages_seq start with 1 increment by 50;
+alter sequence chat_conversations_seq increment by 50;
+alter sequence chat_messages_seq increment by 50;
+
+-- Los inserts que esperen al commit ya verán la secuencia ajustada
+lock table chat_conversations in share mode;
+lock table chat_messages in share mode;
+
+-- greatest con last_value: si algún nodo ya tomó un bloque de la secuencia, no se reparte de nuevo
+select setval('chat_conversations_seq',
+        greatest((select coalesce(max(id), 0) from chat_conversations),
+                 (select last_value from chat_conversations_seq)) + 50, false);
+select setval('chat_messages_seq',
+        greatest((select coalesce(max(id), 0) from chat_messages),
+                 (select last_value from chat_messages_seq)) + 50, false);
+
+-- La columna IDENTITY anterior ya no genera ids; sin ella nadie puede insertar con su secuencia vieja
+alter table chat_conversations alter column id drop identity if exists;
+alter table chat_messages alter column id drop identity if exists;
+
+commit;
@@ -0,0 +1,28 @@
+-- Agregados de ofertas por post (offer_count, pending_offer_count, offer_amount_sum,
+-- best_offer_amount) para bases creadas antes de que existieran. Desde entonces los mantiene
+-- OfferService con UPDATE incrementales; este script los recalcula desde offers.
+--
+-- Idempotente: añade las columnas si faltan y recalcula todos los posts, así que se puede
+-- volver a ejecutar para corregir desviaciones. PostgreSQL:
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f db/offer-stats-backfill.sql
+
+begin;
+
+alter table publications add column if not exists offer_count bigint default 0 not null;
+alter table publications add column if not exists pending_offer_count bigint default 0 not null;
+alter table publications add column if not exists offer_amount_sum double precision default 0 not null;
+alter table publications add column if not exists best_offer_amount double precision;
+
+create index if not exists idx_offers_publication_amount on offers (publication_id, amount);
+
+-- Las ofertas que se creen, cambien o borren durante el recálculo esperan al commit; sin el
+-- bloqueo su UPDATE incremental se sumaría a un total que ya las contaba (o se perdería)
+lock table offers in share mode;
+
+update publications p set
+    offer_count = (select count(*) from offers o where o.publication_id = p.id),
+    pending_offer_count = (select count(*) from offers o where o.publication_id = p.id and o.status = 'PENDING'),
+    offer_amount_sum = (select coalesce(sum(o.amount), 0) from offers o where o.publication_id = p.id),
+    best_offer_amount = (select max(o.amount) from offers o where o.publication_id = p.id);
+
+commit;
@@ -0,0 +1,40 @@
+-- Columnas e índice de offers para bases creadas antes de las transiciones de estado versionadas,
+-- la reserva de cantidad y el vencimiento de ofertas: version, quantity, expires_at, el estado
+-- EXPIRED y el índice (status, expires_at) del expirador.
+--
+-- Con ddl-auto=update Hibernate añade las columnas, pero no toca el CHECK que generó para el
+-- enum (status in ('PENDING','ACCEPTED','REJECTED')): sin reemplazarlo, expirar una oferta
+-- falla con una violación de restricción. Idempotente. PostgreSQL:
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f db/offers-status-version-expiry.sql
+
+begin;
+
+alter table offers add column if not exists version bigint default 0 not null;
+alter table offers add column if not exists quantity double precision;
+alter table offers add column if not exists expires_at timestamp(6);
+
+-- El nombre del CHECK del enum lo elige PostgreSQL (normalmente offers_status_check): se
+-- buscan los CHECK sobre status y se sustituyen por uno con nombre fijo que admite EXPIRED
+do $$
+declare
+    constraint_name text;
+begin
+    for constraint_name in
+        select c.conname from pg_constraint c
+        where c.conrelid = 'offers'::regclass and c.contype = 'c'
+          and pg_get_constraintdef(c.oid) like '%status%'
+    loop
+        execute format('alter table offers drop constraint %I', constraint_name);
+    end loop;
+end $$;
+
+alter table offers add constraint offers_status_check
+    check (status in ('PENDING', 'ACCEPTED', 'REJECTED', 'EXPIRED'));
+
+create index if not exists idx_offers_status_expires on offers (status, expires_at);
+
+-- Las ofertas pendientes anteriores quedan con expires_at nulo y no vencen. Para aplicarles el
+-- plazo por defecto (econexion.offers.ttl-hours, 168) desde su fecha:
+-- update offers set expires_at = "date" + interval '168 hours' where status = 'PENDING' and expires_at is null;
+
+commit;
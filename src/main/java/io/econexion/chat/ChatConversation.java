@@ -12,8 +12,12 @@ import java.time.Instant;
        })
 public class ChatConversation {
 
+    /** Longitud máxima del preview del último mensaje que se guarda en la conversación. */
+    public static final int PREVIEW_LENGTH = 80;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_conv_seq")
+    @SequenceGenerator(name = "chat_conv_seq", sequenceName = "chat_conversations_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "offer_id", nullable = false)
@@ -31,6 +35,19 @@ public class ChatConversation {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // Snapshot del último mensaje, para listar el inbox sin leer el historial
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_message_sender_id")
+    private Long lastMessageSenderId;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH + 1)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at")
+    private Instant lastMessageAt;
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -47,6 +64,13 @@ public class ChatConversation {
         return userId != null && (userId.equals(participant1Id) || userId.equals(participant2Id));
     }
 
+    public static String preview(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.length() > PREVIEW_LENGTH ? text.substring(0, PREVIEW_LENGTH) + "…" : text;
+    }
+
     // === Getters y setters ===
     public Long getId() {
         return id;
@@ -91,4 +115,20 @@ public class ChatConversation {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Long getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public Instant getLastMessageAt() {
+        return lastMessageAt;
+    }
 }
@@ -0,0 +1,104 @@
+package io.econexion.chat;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Fila del inbox de un participante: una por (usuario, conversación), con su contador de
+ * no leídos y la marca del último mensaje leído.
+ * El índice (user_id, updated_at) sirve el listado paginado sin recorrer las conversaciones
+ * de otros usuarios. Las filas se escriben con SQL nativo (ver ChatConversationUpsertImpl).
+ */
+@Entity(name = "ChatInboxEntry")
+@Table(name = "chat_inbox",
+       indexes = {
+           @Index(name = "idx_chat_inbox_user_updated", columnList = "user_id, updated_at, conversation_id"),
+           @Index(name = "idx_chat_inbox_conv", columnList = "conversation_id")
+       })
+@IdClass(ChatInboxEntry.Key.class)
+public class ChatInboxEntry {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "conversation_id", nullable = false)
+    private Long conversationId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "conversation_id", insertable = false, updatable = false)
+    private ChatConversation conversation;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    @Column(name = "last_read_at")
+    private Instant lastReadAt;
+
+    // === Getters ===
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getConversationId() {
+        return conversationId;
+    }
+
+    public ChatConversation getConversation() {
+        return conversation;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public Instant getLastReadAt() {
+        return lastReadAt;
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long conversationId;
+
+        public Key() {
+        }
+
+        public Key(Long userId, Long conversationId) {
+            this.userId = userId;
+            this.conversationId = conversationId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(userId, other.userId) && Objects.equals(conversationId, other.conversationId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, conversationId);
+        }
+    }
+}
@@ -2,14 +2,20 @@ package io.econexion.chat;
 
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity(name = "ChatMessage")
 @Table(name = "chat_messages",
        indexes = @Index(name = "idx_chat_msg_conv_created", columnList = "conversation_id, created_at"))
 public class ChatMessage {
 
+    /** Longitud máxima del texto, la de la columna; los DTO de envío la validan con {@code @Size}. */
+    public static final int MAX_TEXT_LENGTH = 5000;
+
+    // Secuencia con pool (allocationSize) en vez de IDENTITY: permite batch inserts en JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_msg_seq")
+    @SequenceGenerator(name = "chat_msg_seq", sequenceName = "chat_messages_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -19,7 +25,7 @@ public class ChatMessage {
     @Column(name = "sender_id", nullable = false)
     private Long senderId;
 
-    @Column(name = "text", nullable = false, length = 5000)
+    @Column(name = "text", nullable = false, length = MAX_TEXT_LENGTH)
     private String text;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -27,7 +33,8 @@ public class ChatMessage {
 
     @PrePersist
     protected void onCreate() {
-        this.createdAt = Instant.now();
+        // Precisión de microsegundos, la misma que guarda la base de datos, para que los cursores coincidan
+        this.createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // === Getters y setters ===
@@ -0,0 +1,17 @@
+package io.econexion.chat.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transporte entre nodos para los avisos de mensajes de chat confirmados.
+ * Todos los nodos suscritos reciben cada payload publicado, incluido el que lo envió.
+ */
+public interface ChatClusterBus extends AutoCloseable {
+
+    void publish(String payload);
+
+    void start(Consumer<String> receiver);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,40 @@
+package io.econexion.chat.cluster;
+
+import io.econexion.chat.repository.ChatMessageRepository;
+import io.econexion.chat.service.ChatPushService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Activa el reparto de chat entre nodos cuando se define {@code econexion.chat.cluster.bus}:
+ * {@code postgres} usa LISTEN/NOTIFY y {@code memory} un bus dentro de la JVM (pruebas).
+ * Sin la propiedad cada nodo solo entrega a sus propias conexiones.
+ */
+@Configuration
+@ConditionalOnProperty(name = "econexion.chat.cluster.bus")
+public class ChatClusterConfig {
+
+    @Bean
+    public ChatClusterBus chatClusterBus(@Value("${econexion.chat.cluster.bus}") String type,
+                                         @Value("${econexion.chat.cluster.channel:econexion_chat}") String channel,
+                                         ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                         ObjectProvider<DataSourceProperties> dataSourceProperties) {
+        return switch (type) {
+            case "postgres" -> new PostgresChatClusterBus(jdbcTemplate.getObject(), dataSourceProperties.getObject(), channel);
+            case "memory" -> new InMemoryChatClusterBus();
+            default -> throw new IllegalArgumentException("Unknown econexion.chat.cluster.bus: " + type);
+        };
+    }
+
+    @Bean
+    public ChatClusterFanout chatClusterFanout(ChatClusterBus chatClusterBus, ChatPushService chatPushService,
+                                               ChatMessageRepository chatMessageRepository,
+                                               @Value("${econexion.chat.cluster.flush-ms:20}") long flushMs) {
+        return new ChatClusterFanout(chatClusterBus, chatPushService, chatMessageRepository, flushMs);
+    }
+}
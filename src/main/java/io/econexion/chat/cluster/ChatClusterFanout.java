@@ -0,0 +1,140 @@
+package io.econexion.chat.cluster;
+
+import io.econexion.chat.ChatConversation;
+import io.econexion.chat.ChatMessage;
+import io.econexion.chat.dto.MessageDTO;
+import io.econexion.chat.repository.ChatMessageRepository;
+import io.econexion.chat.service.ChatMessageSentEvent;
+import io.econexion.chat.service.ChatPushService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reparte los mensajes de chat confirmados entre los nodos del cluster.
+ * <p>
+ * El nodo que guarda el mensaje lo entrega a sus conexiones locales ({@link ChatPushService})
+ * y además anuncia por el bus el id del mensaje junto con sus dos participantes. Los avisos se
+ * agrupan: cada {@code flushMs} se envía un solo payload con todos los ids pendientes.
+ * Los demás nodos descartan los ids cuyos participantes no tienen conexiones abiertas en ellos
+ * y cargan el resto con una sola consulta por lote antes de entregarlos localmente.
+ * <p>
+ * Formato del payload: {@code <nodo>|<id>.<p1>.<p2>,<id>.<p1>.<p2>,...}
+ */
+public class ChatClusterFanout {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatClusterFanout.class);
+    // NOTIFY admite payloads de menos de 8000 bytes; 100 entradas quedan muy por debajo
+    static final int MAX_BATCH = 100;
+
+    private final ChatClusterBus bus;
+    private final ChatPushService pushService;
+    private final ChatMessageRepository messageRepository;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final ConcurrentLinkedQueue<long[]> outbound = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> inbound = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-cluster-fanout").daemon().factory());
+
+    public ChatClusterFanout(ChatClusterBus bus, ChatPushService pushService,
+                             ChatMessageRepository messageRepository, long flushMs) {
+        this.bus = bus;
+        this.pushService = pushService;
+        this.messageRepository = messageRepository;
+        bus.start(this::receive);
+        scheduler.scheduleWithFixedDelay(safely(this::flushOutbound), flushMs, flushMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(safely(this::flushInbound), flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageSent(ChatMessageSentEvent event) {
+        outbound.add(new long[]{event.getMessage().getId(), event.getParticipant1Id(), event.getParticipant2Id()});
+    }
+
+    void receive(String payload) {
+        int sep = payload.indexOf('|');
+        if (sep < 0 || payload.substring(0, sep).equals(nodeId)) {
+            // Mensajes propios: ya se entregaron localmente al confirmarse
+            return;
+        }
+        for (String entry : payload.substring(sep + 1).split(",")) {
+            String[] parts = entry.split("\\.");
+            try {
+                if (parts.length == 3 && (pushService.hasSubscribers(Long.valueOf(parts[1]))
+                        || pushService.hasSubscribers(Long.valueOf(parts[2])))) {
+                    inbound.add(Long.valueOf(parts[0]));
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed chat cluster entry {}", entry);
+            }
+        }
+    }
+
+    private void flushOutbound() {
+        StringBuilder sb = null;
+        int count = 0;
+        long[] next;
+        while ((next = outbound.poll()) != null) {
+            if (sb == null) {
+                sb = new StringBuilder(nodeId).append('|');
+            } else {
+                sb.append(',');
+            }
+            sb.append(next[0]).append('.').append(next[1]).append('.').append(next[2]);
+            if (++count == MAX_BATCH) {
+                bus.publish(sb.toString());
+                sb = null;
+                count = 0;
+            }
+        }
+        if (sb != null) {
+            bus.publish(sb.toString());
+        }
+    }
+
+    private void flushInbound() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = inbound.poll()) != null) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<ChatMessage> messages = new ArrayList<>(messageRepository.findAllWithConversationByIdIn(ids));
+        messages.sort(Comparator.comparing(ChatMessage::getId));
+        for (ChatMessage m : messages) {
+            ChatConversation c = m.getConversation();
+            pushService.deliverLocally(new ChatMessageSentEvent(c.getId(), c.getParticipant1Id(), c.getParticipant2Id(),
+                    new MessageDTO(m.getId(), m.getSenderId(), m.getText(), m.getCreatedAt())));
+        }
+    }
+
+    private Runnable safely(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Chat cluster fan-out step failed", e);
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        bus.close();
+    }
+}
@@ -0,0 +1,34 @@
+package io.econexion.chat.cluster;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Bus en memoria compartido por toda la JVM. Sirve para pruebas: varios contextos de Spring
+ * en el mismo proceso se comportan como nodos distintos del cluster.
+ */
+public class InMemoryChatClusterBus implements ChatClusterBus {
+
+    private static final Set<Consumer<String>> RECEIVERS = new CopyOnWriteArraySet<>();
+
+    private Consumer<String> receiver;
+
+    @Override
+    public void publish(String payload) {
+        RECEIVERS.forEach(r -> r.accept(payload));
+    }
+
+    @Override
+    public void start(Consumer<String> receiver) {
+        this.receiver = receiver;
+        RECEIVERS.add(receiver);
+    }
+
+    @Override
+    public void close() {
+        if (receiver != null) {
+            RECEIVERS.remove(receiver);
+        }
+    }
+}
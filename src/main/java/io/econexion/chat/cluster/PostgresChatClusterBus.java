@@ -0,0 +1,93 @@
+package io.econexion.chat.cluster;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Bus sobre LISTEN/NOTIFY de PostgreSQL.
+ * <p>
+ * Publica con {@code pg_notify} usando el pool normal y escucha con una conexión dedicada,
+ * abierta fuera de Hikari para no restarle una conexión al pool. Si la conexión de escucha
+ * se cae, se reconecta; los avisos perdidos en ese intervalo los recupera el cliente al
+ * resincronizar con el cursor de mensajes.
+ */
+public class PostgresChatClusterBus implements ChatClusterBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresChatClusterBus.class);
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresChatClusterBus(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties, String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(String payload) {
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    @Override
+    public void start(Consumer<String> receiver) {
+        running = true;
+        listenerThread = Thread.ofPlatform().name("chat-cluster-listener").daemon().start(() -> listen(receiver));
+    }
+
+    private void listen(Consumer<String> receiver) {
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + channel);
+                }
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification n : notifications) {
+                        receiver.accept(n.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Chat cluster listener disconnected, retrying in {} ms: {}", RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+}
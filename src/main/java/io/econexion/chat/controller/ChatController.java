@@ -1,14 +1,19 @@
 package io.econexion.chat.controller;
 
-import io.econexion.chat.ChatConversation;
 import io.econexion.chat.dto.CreateConversationRequest;
 import io.econexion.chat.dto.SendMessageRequest;
-import io.econexion.chat.dto.ConversationSummaryDTO;
+import io.econexion.chat.dto.SendMessagesRequest;
+import io.econexion.chat.dto.ConversationPageDTO;
 import io.econexion.chat.dto.MessageDTO;
+import io.econexion.chat.dto.MessagePageDTO;
+import io.econexion.chat.dto.ReadReceiptsRequest;
+import io.econexion.chat.service.ChatPushService;
 import io.econexion.chat.service.ChatService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -18,27 +23,34 @@ import java.util.Map;
 public class ChatController {
 
     private final ChatService chatService;
-    public ChatController(ChatService chatService) {
+    private final ChatPushService chatPushService;
+    public ChatController(ChatService chatService, ChatPushService chatPushService) {
         this.chatService = chatService;
+        this.chatPushService = chatPushService;
     }
 
     @PostMapping("/conversations")
     public ResponseEntity<?> createOrReuseConversation(@Valid @RequestBody CreateConversationRequest req) {
-        ChatConversation c = chatService.getOrCreateConversation(req.getOfferId(), req.getSenderId(), req.getReceiverId());
+        Long conversationId = chatService.getOrCreateConversation(req.getOfferId(), req.getSenderId(), req.getReceiverId());
         if (req.getFirstMessage() != null && !req.getFirstMessage().isBlank()) {
-            chatService.sendMessage(c.getId(), req.getSenderId(), req.getFirstMessage());
+            chatService.sendMessage(conversationId, req.getSenderId(), req.getFirstMessage());
         }
-        return ResponseEntity.ok(Map.of("conversationId", c.getId()));
+        return ResponseEntity.ok(Map.of("conversationId", conversationId));
     }
 
     @GetMapping("/conversations")
-    public List<ConversationSummaryDTO> listConversations(@RequestParam("userId") Long userId) {
-        return chatService.listConversations(userId);
+    public ConversationPageDTO listConversations(@RequestParam("userId") Long userId,
+                                                 @RequestParam(value = "before", required = false) String before,
+                                                 @RequestParam(value = "limit", required = false) Integer limit) {
+        return chatService.listConversations(userId, before, limit);
     }
 
     @GetMapping("/conversations/{conversationId}/messages")
-    public List<MessageDTO> listMessages(@PathVariable Long conversationId) {
-        return chatService.listMessages(conversationId);
+    public MessagePageDTO listMessages(@PathVariable Long conversationId,
+                                       @RequestParam(value = "before", required = false) String before,
+                                       @RequestParam(value = "after", required = false) String after,
+                                       @RequestParam(value = "limit", required = false) Integer limit) {
+        return chatService.listMessages(conversationId, before, after, limit);
     }
 
     @PostMapping("/conversations/{conversationId}/messages")
@@ -46,4 +58,25 @@ public class ChatController {
                                   @Valid @RequestBody SendMessageRequest req) {
         return chatService.sendMessage(conversationId, req.getSenderId(), req.getText());
     }
+
+    @PostMapping("/conversations/{conversationId}/messages/batch")
+    public List<MessageDTO> sendMessages(@PathVariable Long conversationId,
+                                         @Valid @RequestBody SendMessagesRequest req) {
+        return chatService.sendMessages(conversationId, req.getSenderId(), req.getTexts());
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<Void> markRead(@Valid @RequestBody ReadReceiptsRequest req) {
+        chatService.markRead(req.getUserId(), req.getReceipts());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Canal SSE con los mensajes nuevos de todas las conversaciones del usuario.
+     * El id de cada evento sirve como cursor {@code after} para resincronizar al reconectar.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam("userId") Long userId) {
+        return chatPushService.subscribe(userId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package io.econexion.chat.dto;
+
+/**
+ * Evento que se envía por el canal push cuando llega un mensaje nuevo a una conversación.
+ */
+public class ChatMessageEventDTO {
+
+    private final Long conversationId;
+    private final MessageDTO message;
+
+    public ChatMessageEventDTO(Long conversationId, MessageDTO message) {
+        this.conversationId = conversationId;
+        this.message = message;
+    }
+
+    public Long getConversationId() {
+        return conversationId;
+    }
+
+    public MessageDTO getMessage() {
+        return message;
+    }
+}
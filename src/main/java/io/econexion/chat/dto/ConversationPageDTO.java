@@ -0,0 +1,26 @@
+package io.econexion.chat.dto;
+
+import java.util.List;
+
+/**
+ * Página del inbox de un usuario, de la conversación más reciente a la más antigua.
+ * {@code nextCursor} se envía tal cual en {@code before} para pedir la siguiente página.
+ */
+public class ConversationPageDTO {
+
+    private final List<ConversationSummaryDTO> items;
+    private final String nextCursor;
+
+    public ConversationPageDTO(List<ConversationSummaryDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ConversationSummaryDTO> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
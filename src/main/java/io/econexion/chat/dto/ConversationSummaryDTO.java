@@ -13,15 +13,27 @@ public class ConversationSummaryDTO {
     private final Long participant2Id;
     private final Instant updatedAt;
     private final String lastMessagePreview;
+    private final Long lastMessageId;
+    private final Long lastMessageSenderId;
+    private final Instant lastMessageAt;
+    private final int unreadCount;
+    private final Long lastReadMessageId;
 
     public ConversationSummaryDTO(Long conversationId, Long offerId, Long participant1Id, Long participant2Id,
-                                  Instant updatedAt, String lastMessagePreview) {
+                                  Instant updatedAt, String lastMessagePreview,
+                                  Long lastMessageId, Long lastMessageSenderId, Instant lastMessageAt,
+                                  int unreadCount, Long lastReadMessageId) {
         this.conversationId = conversationId;
         this.offerId = offerId;
         this.participant1Id = participant1Id;
         this.participant2Id = participant2Id;
         this.updatedAt = updatedAt;
         this.lastMessagePreview = lastMessagePreview;
+        this.lastMessageId = lastMessageId;
+        this.lastMessageSenderId = lastMessageSenderId;
+        this.lastMessageAt = lastMessageAt;
+        this.unreadCount = unreadCount;
+        this.lastReadMessageId = lastReadMessageId;
     }
 
     public Long getConversationId() {
@@ -48,6 +60,26 @@ public class ConversationSummaryDTO {
         return lastMessagePreview;
     }
 
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Long getLastMessageSenderId() {
+        return lastMessageSenderId;
+    }
+
+    public Instant getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
     /** Alias útil para compatibilidad con pruebas (preview en vez de lastMessagePreview). */
     public String getPreview() {
         return lastMessagePreview;
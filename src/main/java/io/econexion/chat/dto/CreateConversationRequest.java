@@ -1,12 +1,14 @@
 package io.econexion.chat.dto;
 
+import io.econexion.chat.ChatMessage;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class CreateConversationRequest {
     @NotNull private Long offerId;
     @NotNull private Long senderId;
     @NotNull private Long receiverId;
-    private String firstMessage;
+    @Size(max = ChatMessage.MAX_TEXT_LENGTH) private String firstMessage;
 
     public Long getOfferId() { return offerId; }
     public void setOfferId(Long offerId) { this.offerId = offerId; }
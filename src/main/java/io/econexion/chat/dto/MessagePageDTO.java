@@ -0,0 +1,27 @@
+package io.econexion.chat.dto;
+
+import java.util.List;
+
+/**
+ * Página de mensajes de una conversación, en orden cronológico.
+ * {@code nextCursor} es opaco y se envía tal cual en {@code before}/{@code after}
+ * para pedir la siguiente página; es {@code null} cuando no hay más mensajes.
+ */
+public class MessagePageDTO {
+
+    private final List<MessageDTO> items;
+    private final String nextCursor;
+
+    public MessagePageDTO(List<MessageDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<MessageDTO> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
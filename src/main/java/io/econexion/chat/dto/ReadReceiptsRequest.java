@@ -0,0 +1,31 @@
+package io.econexion.chat.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Confirmaciones de lectura de un usuario, agrupadas: hasta qué mensaje leyó en cada conversación.
+ */
+public class ReadReceiptsRequest {
+    @NotNull private Long userId;
+    @NotEmpty @Size(max = 200) private List<@Valid Receipt> receipts;
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public List<Receipt> getReceipts() { return receipts; }
+    public void setReceipts(List<Receipt> receipts) { this.receipts = receipts; }
+
+    public static class Receipt {
+        @NotNull private Long conversationId;
+        @NotNull private Long messageId;
+
+        public Long getConversationId() { return conversationId; }
+        public void setConversationId(Long conversationId) { this.conversationId = conversationId; }
+        public Long getMessageId() { return messageId; }
+        public void setMessageId(Long messageId) { this.messageId = messageId; }
+    }
+}
@@ -1,11 +1,13 @@
 package io.econexion.chat.dto;
 
+import io.econexion.chat.ChatMessage;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class SendMessageRequest {
     @NotNull private Long senderId;
-    @NotBlank private String text;
+    @NotBlank @Size(max = ChatMessage.MAX_TEXT_LENGTH) private String text;
 
     public Long getSenderId() { return senderId; }
     public void setSenderId(Long senderId) { this.senderId = senderId; }
@@ -0,0 +1,23 @@
+package io.econexion.chat.dto;
+
+import io.econexion.chat.ChatMessage;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Lote de mensajes de un mismo remitente, p. ej. los que un cliente acumuló sin conexión.
+ * Cada texto se valida aparte: uno demasiado largo responde 400 en vez de fallar el lote al insertar.
+ */
+public class SendMessagesRequest {
+    @NotNull private Long senderId;
+    @NotEmpty @Size(max = 500) private List<@NotBlank @Size(max = ChatMessage.MAX_TEXT_LENGTH) String> texts;
+
+    public Long getSenderId() { return senderId; }
+    public void setSenderId(Long senderId) { this.senderId = senderId; }
+    public List<String> getTexts() { return texts; }
+    public void setTexts(List<String> texts) { this.texts = texts; }
+}
@@ -2,22 +2,43 @@ package io.econexion.chat.repository;
 
 import io.econexion.chat.ChatConversation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
-import java.util.List;
+import java.time.Instant;
 import java.util.Optional;
 
-public interface ChatConversationRepository extends JpaRepository<ChatConversation, Long> {
+public interface ChatConversationRepository extends JpaRepository<ChatConversation, Long>, ChatConversationUpsert {
 
     Optional<ChatConversation> findByOfferIdAndParticipant1IdAndParticipant2Id(Long offerId, Long p1, Long p2);
 
-    @Query("select c from ChatConversation c " +
-           "where c.participant1Id = :userId or c.participant2Id = :userId " +
-           "order by c.updatedAt desc")
-    List<ChatConversation> findAllByUserOrdered(Long userId);
-
     @Query("select c from ChatConversation c " +
            "where c.offerId = :offerId and " +
            "((c.participant1Id = :a and c.participant2Id = :b) or (c.participant1Id = :b and c.participant2Id = :a))")
     Optional<ChatConversation> findByOfferAndParticipantsAnyOrder(Long offerId, Long a, Long b);
-}
\ No newline at end of file
+
+    @Query("select c.participant1Id as participant1Id, c.participant2Id as participant2Id " +
+           "from ChatConversation c where c.id = :id")
+    Optional<ConversationParticipants> findParticipantsById(Long id);
+
+    /**
+     * Avanza el snapshot del último mensaje y {@code updatedAt} en un solo UPDATE.
+     * Solo se aplica si el mensaje es más nuevo que el guardado, así el orden de escritura no importa.
+     */
+    @Modifying
+    @Query("update ChatConversation c set c.updatedAt = :at, c.lastMessageAt = :at, " +
+           "c.lastMessageId = :messageId, c.lastMessageSenderId = :senderId, c.lastMessagePreview = :preview " +
+           "where c.id = :conversationId and (c.lastMessageAt is null or c.lastMessageAt < :at " +
+           "or (c.lastMessageAt = :at and c.lastMessageId < :messageId))")
+    int recordLastMessage(Long conversationId, Long messageId, Long senderId, String preview, Instant at);
+
+    interface ConversationParticipants {
+        Long getParticipant1Id();
+
+        Long getParticipant2Id();
+
+        default boolean involvesUser(Long userId) {
+            return userId != null && (userId.equals(getParticipant1Id()) || userId.equals(getParticipant2Id()));
+        }
+    }
+}
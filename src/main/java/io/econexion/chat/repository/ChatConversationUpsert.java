@@ -0,0 +1,13 @@
+package io.econexion.chat.repository;
+
+/**
+ * Alta atómica de conversaciones, sin el SELECT previo que compite con otros INSERT.
+ */
+public interface ChatConversationUpsert {
+
+    /**
+     * Devuelve el id de la conversación (offerId, p1, p2), creándola si no existe.
+     * Los participantes deben venir normalizados: {@code p1 <= p2}.
+     */
+    Long upsertConversation(Long offerId, Long p1, Long p2);
+}
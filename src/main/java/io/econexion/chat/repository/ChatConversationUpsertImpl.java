@@ -0,0 +1,102 @@
+package io.econexion.chat.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.util.List;
+
+/**
+ * Upsert nativo sobre la restricción única (offer_id, participant1_id, participant2_id):
+ * INSERT ... ON CONFLICT en PostgreSQL y MERGE en H2. También crea las filas de chat_inbox
+ * de los dos participantes. Corre con JdbcTemplate, así que si
+ * no hay transacción abierta cada sentencia se confirma sola.
+ */
+public class ChatConversationUpsertImpl implements ChatConversationUpsert {
+
+    private static final String PG_UPSERT =
+            "with ins as (" +
+            "  insert into chat_conversations (id, offer_id, participant1_id, participant2_id, created_at, updated_at)" +
+            "  values (nextval('chat_conversations_seq'), ?, ?, ?, current_timestamp, current_timestamp)" +
+            "  on conflict (offer_id, participant1_id, participant2_id) do nothing" +
+            "  returning id) " +
+            "select id from ins " +
+            "union all " +
+            "select id from chat_conversations where offer_id = ? and participant1_id = ? and participant2_id = ? " +
+            "limit 1";
+
+    private static final String H2_MERGE =
+            "merge into chat_conversations t " +
+            "using (values (cast(? as bigint), cast(? as bigint), cast(? as bigint))) s(offer_id, p1, p2) " +
+            "on t.offer_id = s.offer_id and t.participant1_id = s.p1 and t.participant2_id = s.p2 " +
+            "when not matched then insert (id, offer_id, participant1_id, participant2_id, created_at, updated_at) " +
+            "values (next value for chat_conversations_seq, s.offer_id, s.p1, s.p2, current_timestamp, current_timestamp)";
+
+    private static final String PG_INBOX =
+            "insert into chat_inbox (user_id, conversation_id, updated_at, unread_count) values (?, ?, current_timestamp, 0) " +
+            "on conflict (user_id, conversation_id) do nothing";
+
+    private static final String H2_INBOX =
+            "merge into chat_inbox t using (values (cast(? as bigint), cast(? as bigint))) s(user_id, conversation_id) " +
+            "on t.user_id = s.user_id and t.conversation_id = s.conversation_id " +
+            "when not matched then insert (user_id, conversation_id, updated_at, unread_count) " +
+            "values (s.user_id, s.conversation_id, current_timestamp, 0)";
+
+    private static final String SELECT_ID =
+            "select id from chat_conversations where offer_id = ? and participant1_id = ? and participant2_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public ChatConversationUpsertImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Long upsertConversation(Long offerId, Long p1, Long p2) {
+        Long id = upsert(offerId, p1, p2);
+        // Filas del inbox de ambos participantes; idempotente, no pisa el updated_at existente
+        List<Object[]> rows = p1.equals(p2)
+                ? List.<Object[]>of(new Object[]{p1, id})
+                : List.of(new Object[]{p1, id}, new Object[]{p2, id});
+        try {
+            jdbcTemplate.batchUpdate(isPostgres() ? PG_INBOX : H2_INBOX, rows);
+        } catch (DuplicateKeyException e) {
+            // Otro nodo creó las mismas filas a la vez
+        }
+        return id;
+    }
+
+    private Long upsert(Long offerId, Long p1, Long p2) {
+        if (isPostgres()) {
+            List<Long> ids = jdbcTemplate.queryForList(PG_UPSERT, Long.class, offerId, p1, p2, offerId, p1, p2);
+            if (!ids.isEmpty()) {
+                return ids.get(0);
+            }
+            // La fila la insertó otra transacción después del snapshot de la sentencia: ya está confirmada
+            return jdbcTemplate.queryForObject(SELECT_ID, Long.class, offerId, p1, p2);
+        }
+        try {
+            jdbcTemplate.update(H2_MERGE, offerId, p1, p2);
+        } catch (DuplicateKeyException e) {
+            // Otro MERGE concurrente ganó; la fila ya existe
+        }
+        return jdbcTemplate.queryForObject(SELECT_ID, Long.class, offerId, p1, p2);
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                        metaData -> metaData.getDatabaseProductName());
+                pg = "PostgreSQL".equalsIgnoreCase(product);
+            } catch (MetaDataAccessException e) {
+                pg = false;
+            }
+            postgres = pg;
+        }
+        return pg;
+    }
+}
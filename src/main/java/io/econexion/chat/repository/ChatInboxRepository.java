@@ -0,0 +1,47 @@
+package io.econexion.chat.repository;
+
+import io.econexion.chat.ChatInboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ChatInboxRepository extends JpaRepository<ChatInboxEntry, ChatInboxEntry.Key> {
+
+    // Paginación por keyset sobre idx_chat_inbox_user_updated (user_id, updated_at, conversation_id)
+
+    @Query("select i from ChatInboxEntry i join fetch i.conversation where i.userId = :userId " +
+           "order by i.updatedAt desc, i.conversationId desc")
+    List<ChatInboxEntry> findLatest(Long userId, Limit limit);
+
+    @Query("select i from ChatInboxEntry i join fetch i.conversation where i.userId = :userId " +
+           "and (i.updatedAt < :updatedAt or (i.updatedAt = :updatedAt and i.conversationId < :conversationId)) " +
+           "order by i.updatedAt desc, i.conversationId desc")
+    List<ChatInboxEntry> findBefore(Long userId, Instant updatedAt, Long conversationId, Limit limit);
+
+    /** Sube la conversación en el inbox de sus dos participantes; nunca la hace retroceder. */
+    @Modifying
+    @Query("update ChatInboxEntry i set i.updatedAt = :at where i.conversationId = :conversationId and i.updatedAt < :at")
+    int touch(Long conversationId, Instant at);
+
+    /** Suma {@code count} mensajes nuevos al contador de no leídos de quien no los envió. */
+    @Modifying
+    @Query("update ChatInboxEntry i set i.unreadCount = i.unreadCount + :count " +
+           "where i.conversationId = :conversationId and i.userId <> :senderId")
+    int incrementUnread(Long conversationId, Long senderId, int count);
+
+    /**
+     * Mueve la marca de lectura hasta el mensaje indicado (nunca hacia atrás) y recalcula los
+     * no leídos como los mensajes de la otra parte posteriores a esa marca.
+     */
+    @Modifying
+    @Query("update ChatInboxEntry i set i.lastReadMessageId = :messageId, i.lastReadAt = :at, " +
+           "i.unreadCount = (select count(m) from ChatMessage m where m.conversation.id = :conversationId " +
+           "  and m.senderId <> :userId and (m.createdAt > :at or (m.createdAt = :at and m.id > :messageId))) " +
+           "where i.userId = :userId and i.conversationId = :conversationId " +
+           "and (i.lastReadAt is null or i.lastReadAt < :at or (i.lastReadAt = :at and i.lastReadMessageId < :messageId))")
+    int markRead(Long userId, Long conversationId, Long messageId, Instant at);
+}
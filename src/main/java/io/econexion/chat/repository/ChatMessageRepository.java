@@ -1,10 +1,33 @@
 package io.econexion.chat.repository;
 
 import io.econexion.chat.ChatMessage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
     List<ChatMessage> findByConversation_IdOrderByCreatedAtAsc(Long conversationId);
-}
\ No newline at end of file
+
+    // Paginación por keyset sobre idx_chat_msg_conv_created (conversation_id, created_at), con id como desempate
+
+    @Query("select m from ChatMessage m where m.conversation.id = :conversationId " +
+           "order by m.createdAt desc, m.id desc")
+    List<ChatMessage> findLatest(Long conversationId, Limit limit);
+
+    @Query("select m from ChatMessage m where m.conversation.id = :conversationId " +
+           "and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) " +
+           "order by m.createdAt desc, m.id desc")
+    List<ChatMessage> findBefore(Long conversationId, Instant createdAt, Long id, Limit limit);
+
+    @Query("select m from ChatMessage m where m.conversation.id = :conversationId " +
+           "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)) " +
+           "order by m.createdAt asc, m.id asc")
+    List<ChatMessage> findAfter(Long conversationId, Instant createdAt, Long id, Limit limit);
+
+    @Query("select m from ChatMessage m join fetch m.conversation where m.id in :ids")
+    List<ChatMessage> findAllWithConversationByIdIn(Collection<Long> ids);
+}
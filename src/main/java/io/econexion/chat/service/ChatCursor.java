@@ -0,0 +1,45 @@
+package io.econexion.chat.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por keyset sobre (instante, id): (created_at, id) en los mensajes y
+ * (updated_at, conversation_id) en el inbox. Se serializa como base64url para que el cliente
+ * lo trate como opaco.
+ */
+final class ChatCursor {
+
+    private final Instant at;
+    private final Long id;
+
+    ChatCursor(Instant at, Long id) {
+        this.at = at;
+        this.id = id;
+    }
+
+    Instant getAt() {
+        return at;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = at.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChatCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new ChatCursor(Instant.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.econexion.chat.service;
+
+import io.econexion.chat.dto.MessageDTO;
+
+/**
+ * Evento de aplicación publicado por {@link ChatService#sendMessage} para entregar
+ * el mensaje a los participantes conectados una vez confirmada la transacción.
+ */
+public class ChatMessageSentEvent {
+
+    private final Long conversationId;
+    private final Long participant1Id;
+    private final Long participant2Id;
+    private final MessageDTO message;
+
+    public ChatMessageSentEvent(Long conversationId, Long participant1Id, Long participant2Id, MessageDTO message) {
+        this.conversationId = conversationId;
+        this.participant1Id = participant1Id;
+        this.participant2Id = participant2Id;
+        this.message = message;
+    }
+
+    public Long getConversationId() {
+        return conversationId;
+    }
+
+    public Long getParticipant1Id() {
+        return participant1Id;
+    }
+
+    public Long getParticipant2Id() {
+        return participant2Id;
+    }
+
+    public MessageDTO getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,152 @@
+package io.econexion.chat.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.econexion.chat.dto.ChatMessageEventDTO;
+import io.econexion.chat.dto.MessageDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega de mensajes de chat en tiempo real por Server-Sent Events.
+ * <p>
+ * Cada conexión tiene un buffer acotado; si un cliente no consume a tiempo y su buffer
+ * se llena, se cierra la conexión y el cliente se resincroniza reconectando y pidiendo
+ * los mensajes con {@code after=<último id de evento>}.
+ */
+@Service
+public class ChatPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatPushService.class);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+
+    private final ConcurrentHashMap<Long, Set<ChatSubscriber>> subscribers = new ConcurrentHashMap<>();
+    // Los envíos pueden bloquear en clientes lentos; con hilos virtuales eso no consume hilos de plataforma
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-sse-heartbeat").daemon().factory());
+
+    public ChatPushService(ObjectMapper objectMapper,
+                           @Value("${econexion.chat.push.buffer-size:64}") int bufferSize,
+                           @Value("${econexion.chat.push.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${econexion.chat.push.heartbeat-ms:25000}") long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        heartbeatScheduler.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra una conexión SSE para el usuario. Recibirá los mensajes de todas sus conversaciones.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        ChatSubscriber subscriber = new ChatSubscriber(userId, emitter, bufferSize);
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        subscribers.compute(userId, (id, set) -> {
+            Set<ChatSubscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageSent(ChatMessageSentEvent event) {
+        deliverLocally(event);
+    }
+
+    /**
+     * Entrega el mensaje a las conexiones de ambos participantes abiertas en este nodo.
+     * El evento se serializa una sola vez y se comparte entre todas las conexiones.
+     */
+    public void deliverLocally(ChatMessageSentEvent event) {
+        Set<ChatSubscriber> p1 = subscribers.get(event.getParticipant1Id());
+        Set<ChatSubscriber> p2 = subscribers.get(event.getParticipant2Id());
+        if (p1 == null && p2 == null) {
+            return;
+        }
+        Set<DataWithMediaType> frame = frame(event);
+        if (frame == null) {
+            return;
+        }
+        fanOut(p1, frame);
+        fanOut(p2, frame);
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void fanOut(Set<ChatSubscriber> targets, Set<DataWithMediaType> frame) {
+        if (targets == null) {
+            return;
+        }
+        for (ChatSubscriber s : targets) {
+            if (!s.offer(frame, deliveryExecutor)) {
+                log.debug("Dropping slow chat subscriber for user {}", s.getUserId());
+                s.close();
+                unsubscribe(s);
+            }
+        }
+    }
+
+    private Set<DataWithMediaType> frame(ChatMessageSentEvent event) {
+        MessageDTO m = event.getMessage();
+        try {
+            String json = objectMapper.writeValueAsString(new ChatMessageEventDTO(event.getConversationId(), m));
+            return SseEmitter.event()
+                    .id(new ChatCursor(m.getCreatedAt(), m.getId()).encode())
+                    .name("message")
+                    .data(json)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize chat event for message {}", m.getId(), e);
+            return null;
+        }
+    }
+
+    private void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(set -> fanOut(set, ping));
+    }
+
+    private void unsubscribe(ChatSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getUserId(), (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(ChatSubscriber::close));
+        subscribers.clear();
+        deliveryExecutor.shutdownNow();
+    }
+}
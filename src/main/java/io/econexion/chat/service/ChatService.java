@@ -1,88 +1,216 @@
 package io.econexion.chat.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.econexion.chat.ChatConversation;
+import io.econexion.chat.ChatInboxEntry;
 import io.econexion.chat.ChatMessage;
+import io.econexion.chat.dto.ConversationPageDTO;
 import io.econexion.chat.dto.ConversationSummaryDTO;
 import io.econexion.chat.dto.MessageDTO;
+import io.econexion.chat.dto.MessagePageDTO;
+import io.econexion.chat.dto.ReadReceiptsRequest;
 import io.econexion.chat.repository.ChatConversationRepository;
+import io.econexion.chat.repository.ChatConversationRepository.ConversationParticipants;
+import io.econexion.chat.repository.ChatInboxRepository;
 import io.econexion.chat.repository.ChatMessageRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed("econexion.service")
 public class ChatService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final ChatConversationRepository conversationRepository;
     private final ChatMessageRepository messageRepository;
+    private final ChatInboxRepository inboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConversationActivityCoalescer activityCoalescer;
+    // (offerId:p1:p2) -> id. Las conversaciones no se borran ni cambian de participantes, no hace falta invalidar
+    private final Cache<String, Long> conversationIds;
 
     public ChatService(ChatConversationRepository conversationRepository,
-                       ChatMessageRepository messageRepository) {
+                       ChatMessageRepository messageRepository,
+                       ChatInboxRepository inboxRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       ConversationActivityCoalescer activityCoalescer,
+                       @Value("${econexion.chat.conversation-cache-size:10000}") long conversationCacheSize) {
         this.conversationRepository = conversationRepository;
         this.messageRepository = messageRepository;
+        this.inboxRepository = inboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.activityCoalescer = activityCoalescer;
+        this.conversationIds = Caffeine.newBuilder().maximumSize(conversationCacheSize).build();
     }
 
-    @Transactional
-    public ChatConversation getOrCreateConversation(Long offerId, Long senderId, Long receiverId) {
-        return conversationRepository.findByOfferAndParticipantsAnyOrder(offerId, senderId, receiverId)
-                .orElseGet(() -> {
-                    ChatConversation c = new ChatConversation();
-                    c.setOfferId(offerId);
-                    Long p1 = Math.min(senderId, receiverId);
-                    Long p2 = Math.max(senderId, receiverId);
-                    c.setParticipant1Id(p1);
-                    c.setParticipant2Id(p2);
-                    return conversationRepository.save(c);
-                });
+    /**
+     * Devuelve el id de la conversación de la oferta entre los dos usuarios, creándola si no existe.
+     * Un solo upsert atómico (sin carreras contra la restricción única) y, para conversaciones
+     * ya conocidas por este nodo, ningún acceso a la base de datos.
+     */
+    public Long getOrCreateConversation(Long offerId, Long senderId, Long receiverId) {
+        Long p1 = Math.min(senderId, receiverId);
+        Long p2 = Math.max(senderId, receiverId);
+        return conversationIds.get(offerId + ":" + p1 + ":" + p2,
+                key -> conversationRepository.upsertConversation(offerId, p1, p2));
     }
 
     @Transactional
     public MessageDTO sendMessage(Long conversationId, Long senderId, String text) {
-        ChatConversation c = conversationRepository.findById(conversationId)
+        return sendMessages(conversationId, senderId, List.of(text)).get(0);
+    }
+
+    /**
+     * Guarda varios mensajes del mismo remitente en una sola transacción. Los ids salen de la
+     * secuencia con pool, así Hibernate agrupa los inserts en batches JDBC al hacer flush.
+     */
+    @Transactional
+    public List<MessageDTO> sendMessages(Long conversationId, Long senderId, List<String> texts) {
+        ConversationParticipants participants = conversationRepository.findParticipantsById(conversationId)
                 .orElseThrow(() -> new IllegalArgumentException("Conversation not found"));
 
-        if (!c.involvesUser(senderId)) {
+        if (!participants.involvesUser(senderId)) {
             throw new IllegalArgumentException("Sender not in conversation");
         }
 
-        ChatMessage m = new ChatMessage();
-        m.setConversation(c);
-        m.setSenderId(senderId);
-        m.setText(text);
-        m = messageRepository.save(m);
+        // Referencia sin SELECT: la fila de la conversación solo se toca en el UPDATE del snapshot
+        ChatConversation c = conversationRepository.getReferenceById(conversationId);
+        List<ChatMessage> messages = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            ChatMessage m = new ChatMessage();
+            m.setConversation(c);
+            m.setSenderId(senderId);
+            m.setText(text);
+            messages.add(m);
+        }
+        messages = messageRepository.saveAll(messages);
 
-        c.setUpdatedAt(Instant.now());
-        conversationRepository.save(c);
+        inboxRepository.incrementUnread(conversationId, senderId, messages.size());
+        activityCoalescer.record(conversationId, messages.get(messages.size() - 1));
 
-        return new MessageDTO(m.getId(), m.getSenderId(), m.getText(), m.getCreatedAt());
+        List<MessageDTO> dtos = new ArrayList<>(messages.size());
+        for (ChatMessage m : messages) {
+            MessageDTO dto = new MessageDTO(m.getId(), m.getSenderId(), m.getText(), m.getCreatedAt());
+            // Se entrega a las conexiones push después del commit (ChatPushService)
+            eventPublisher.publishEvent(new ChatMessageSentEvent(conversationId,
+                    participants.getParticipant1Id(), participants.getParticipant2Id(), dto));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
+    /**
+     * Devuelve una página de mensajes en orden cronológico.
+     * Sin cursor devuelve los más recientes; con {@code before} los anteriores al cursor
+     * y con {@code after} los posteriores. El tamaño se limita a {@link #MAX_PAGE_SIZE}.
+     */
     @Transactional(readOnly = true)
-    public List<MessageDTO> listMessages(Long conversationId) {
-        return messageRepository.findByConversation_IdOrderByCreatedAtAsc(conversationId).stream()
+    public MessagePageDTO listMessages(Long conversationId, String before, String after, Integer limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
+        }
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Se pide un elemento de más para saber si existe una página siguiente
+        Limit fetch = Limit.of(size + 1);
+
+        List<ChatMessage> rows;
+        boolean ascending = after != null;
+        if (after != null) {
+            ChatCursor c = ChatCursor.decode(after);
+            rows = messageRepository.findAfter(conversationId, c.getAt(), c.getId(), fetch);
+        } else if (before != null) {
+            ChatCursor c = ChatCursor.decode(before);
+            rows = messageRepository.findBefore(conversationId, c.getAt(), c.getId(), fetch);
+        } else {
+            rows = messageRepository.findLatest(conversationId, fetch);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<ChatMessage> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        String nextCursor = null;
+        if (hasMore) {
+            ChatMessage edge = page.get(page.size() - 1);
+            nextCursor = new ChatCursor(edge.getCreatedAt(), edge.getId()).encode();
+        }
+        if (!ascending) {
+            Collections.reverse(page);
+        }
+
+        List<MessageDTO> items = page.stream()
                 .map(m -> new MessageDTO(m.getId(), m.getSenderId(), m.getText(), m.getCreatedAt()))
                 .toList();
+        return new MessagePageDTO(items, nextCursor);
     }
 
+    /**
+     * Inbox del usuario paginado por keyset sobre chat_inbox (updated_at, conversation_id).
+     * El preview sale del snapshot guardado en la conversación, sin leer historiales.
+     */
     @Transactional(readOnly = true)
-    public List<ConversationSummaryDTO> listConversations(Long userId) {
-        List<ChatConversation> convs = conversationRepository.findAllByUserOrdered(userId);
-
-        return convs.stream().map(c -> {
-            String preview = messageRepository.findByConversation_IdOrderByCreatedAtAsc(c.getId()).stream()
-                    .max(Comparator.comparing(ChatMessage::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())))
-                    .map(m -> {
-                        String t = m.getText();
-                        return t.length() > 80 ? t.substring(0, 80) + "…" : t;
-                    })
-                    .orElse("");
-            return new ConversationSummaryDTO(
-                    c.getId(), c.getOfferId(), c.getParticipant1Id(), c.getParticipant2Id(),
-                    c.getUpdatedAt(), preview
-            );
-        }).toList();
+    public ConversationPageDTO listConversations(Long userId, String before, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Limit fetch = Limit.of(size + 1);
+
+        List<ChatInboxEntry> rows;
+        if (before != null) {
+            ChatCursor c = ChatCursor.decode(before);
+            rows = inboxRepository.findBefore(userId, c.getAt(), c.getId(), fetch);
+        } else {
+            rows = inboxRepository.findLatest(userId, fetch);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<ChatInboxEntry> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ChatInboxEntry edge = page.get(page.size() - 1);
+            nextCursor = new ChatCursor(edge.getUpdatedAt(), edge.getConversationId()).encode();
+        }
+
+        List<ConversationSummaryDTO> items = page.stream()
+                .map(i -> {
+                    ChatConversation c = i.getConversation();
+                    return new ConversationSummaryDTO(
+                            c.getId(), c.getOfferId(), c.getParticipant1Id(), c.getParticipant2Id(),
+                            i.getUpdatedAt(),
+                            c.getLastMessagePreview() != null ? c.getLastMessagePreview() : "",
+                            c.getLastMessageId(), c.getLastMessageSenderId(), c.getLastMessageAt(),
+                            i.getUnreadCount(), i.getLastReadMessageId());
+                })
+                .toList();
+        return new ConversationPageDTO(items, nextCursor);
+    }
+
+    /**
+     * Aplica un lote de confirmaciones de lectura: un UPDATE por conversación, que mueve la
+     * marca solo hacia adelante y deja el contador de no leídos consistente con ella.
+     */
+    @Transactional
+    public void markRead(Long userId, List<ReadReceiptsRequest.Receipt> receipts) {
+        Map<Long, ChatMessage> messages = new HashMap<>();
+        messageRepository.findAllById(receipts.stream().map(ReadReceiptsRequest.Receipt::getMessageId).toList())
+                .forEach(m -> messages.put(m.getId(), m));
+
+        for (ReadReceiptsRequest.Receipt r : receipts) {
+            ChatMessage m = messages.get(r.getMessageId());
+            if (m == null || !m.getConversation().getId().equals(r.getConversationId())) {
+                throw new IllegalArgumentException("Message " + r.getMessageId()
+                        + " not found in conversation " + r.getConversationId());
+            }
+            inboxRepository.markRead(userId, r.getConversationId(), m.getId(), m.getCreatedAt());
+        }
     }
 }
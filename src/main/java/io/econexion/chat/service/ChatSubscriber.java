@@ -0,0 +1,97 @@
+package io.econexion.chat.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conexión SSE de un usuario con su propio buffer acotado.
+ * Un solo drenado activo por conexión, así los envíos nunca se ejecutan en paralelo
+ * y un cliente lento no bloquea al hilo que publica el mensaje.
+ * <p>
+ * Los métodos de {@link SseEmitter} son {@code synchronized}: mientras un envío está bloqueado
+ * en un cliente que no lee, {@code complete()} espera hasta que venza la escritura. Por eso
+ * {@link #close()} no completa el emitter si hay un drenado activo; lo hace el propio drenado
+ * cuando su envío termina.
+ */
+final class ChatSubscriber {
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ChatSubscriber(Long userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Encola un evento y agenda el drenado. Devuelve {@code false} si el buffer está lleno
+     * (consumidor lento) o la conexión ya se cerró.
+     */
+    boolean offer(Set<DataWithMediaType> frame, Executor executor) {
+        if (closed.get() || !buffer.offer(frame)) {
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    private void drain() {
+        do {
+            Set<DataWithMediaType> frame;
+            while (!closed.get() && (frame = buffer.poll()) != null) {
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    closed.set(true);
+                }
+            }
+            if (closed.get()) {
+                // El drenado queda tomado para siempre: nadie más envía por esta conexión
+                buffer.clear();
+                complete();
+                return;
+            }
+            draining.set(false);
+            // Si alguien encoló o cerró justo después de vaciar el buffer, se retoma aquí mismo
+        } while ((!buffer.isEmpty() || closed.get()) && draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Cierra la conexión sin bloquear al que llama. Si hay un envío en curso, el emitter lo
+     * completa el drenado al terminarlo.
+     */
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        buffer.clear();
+        if (draining.compareAndSet(false, true)) {
+            complete();
+        }
+    }
+
+    private void complete() {
+        try {
+            emitter.complete();
+        } catch (IllegalStateException ignored) {
+            // La respuesta ya estaba cerrada
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.econexion.chat.service;
+
+import io.econexion.chat.ChatConversation;
+import io.econexion.chat.ChatMessage;
+import io.econexion.chat.repository.ChatConversationRepository;
+import io.econexion.chat.repository.ChatInboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe el snapshot del último mensaje y {@code updatedAt} de las conversaciones, y sube la
+ * conversación en el inbox ({@code chat_inbox}) de sus participantes.
+ * <p>
+ * Con {@code econexion.chat.activity.flush-ms > 0} los cambios se acumulan en memoria tras el
+ * commit y se escriben como máximo una vez por conversación en cada ventana, de modo que una
+ * conversación muy activa no bloquea su fila en cada mensaje. Con {@code 0} se escribe dentro
+ * de la misma transacción del mensaje.
+ * <p>
+ * El UPDATE es condicional ({@link ChatConversationRepository#recordLastMessage}): nunca
+ * retrocede el snapshot, aunque varios nodos escriban la misma conversación.
+ */
+@Component
+public class ConversationActivityCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversationActivityCoalescer.class);
+
+    private final ChatConversationRepository conversationRepository;
+    private final ChatInboxRepository inboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushMs;
+
+    private final ConcurrentHashMap<Long, Activity> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public ConversationActivityCoalescer(ChatConversationRepository conversationRepository,
+                                         ChatInboxRepository inboxRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${econexion.chat.activity.flush-ms:100}") long flushMs) {
+        this.conversationRepository = conversationRepository;
+        this.inboxRepository = inboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushMs = flushMs;
+        if (flushMs > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("chat-activity-flush").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Registra el último mensaje guardado en la conversación. Debe llamarse dentro de la
+     * transacción que lo guarda.
+     */
+    public void record(Long conversationId, ChatMessage last) {
+        Activity activity = new Activity(last.getId(), last.getSenderId(),
+                ChatConversation.preview(last.getText()), last.getCreatedAt());
+        if (flushMs <= 0) {
+            write(conversationId, activity);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.merge(conversationId, activity, Activity::newest);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.merge(conversationId, activity, Activity::newest);
+            }
+        });
+    }
+
+    /**
+     * Escribe todo lo pendiente: un UPDATE por conversación, en una sola transacción.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Activity> batch = new HashMap<>();
+        for (Long id : pending.keySet()) {
+            Activity a = pending.remove(id);
+            if (a != null) {
+                batch.put(id, a);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::write));
+        } catch (RuntimeException e) {
+            log.warn("Could not flush activity for {} chat conversations, will retry", batch.size(), e);
+            batch.forEach((id, a) -> pending.merge(id, a, Activity::newest));
+        }
+    }
+
+    private void write(Long conversationId, Activity a) {
+        conversationRepository.recordLastMessage(conversationId, a.messageId, a.senderId, a.preview, a.at);
+        inboxRepository.touch(conversationId, a.at);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flush();
+        }
+    }
+
+    private static final class Activity {
+        private final Long messageId;
+        private final Long senderId;
+        private final String preview;
+        private final Instant at;
+
+        private Activity(Long messageId, Long senderId, String preview, Instant at) {
+            this.messageId = messageId;
+            this.senderId = senderId;
+            this.preview = preview;
+            this.at = at;
+        }
+
+        private static Activity newest(Activity a, Activity b) {
+            int cmp = a.at.compareTo(b.at);
+            if (cmp == 0) {
+                cmp = a.messageId.compareTo(b.messageId);
+            }
+            return cmp >= 0 ? a : b;
+        }
+    }
+}
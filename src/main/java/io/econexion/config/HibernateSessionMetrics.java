@@ -0,0 +1,56 @@
+package io.econexion.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Cuenta las sentencias JDBC y los accesos a la caché de segundo nivel de cada sesión de
+ * Hibernate y, al cerrarla, los publica como distribuciones {@code hibernate.session.statements},
+ * {@code hibernate.session.cache.hits} y {@code hibernate.session.cache.misses}. Con open-in-view
+ * una sesión es una petición HTTP, así que el p99 de sentencias delata los N+1.
+ * <p>
+ * Hibernate crea una instancia por sesión ({@code hibernate.session.events.auto}); como no la
+ * crea Spring, registra en {@link Metrics#globalRegistry}, al que Boot añade sus registros.
+ */
+public class HibernateSessionMetrics implements SessionEventListener {
+
+    private int statements;
+    private int cacheHits;
+    private int cacheMisses;
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statements++;
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    @Override
+    public void end() {
+        if (statements == 0 && cacheHits == 0 && cacheMisses == 0) {
+            return;
+        }
+        summary("hibernate.session.statements", "JDBC statements executed per Hibernate session").record(statements);
+        summary("hibernate.session.cache.hits", "Second-level cache hits per Hibernate session").record(cacheHits);
+        summary("hibernate.session.cache.misses", "Second-level cache misses per Hibernate session").record(cacheMisses);
+    }
+
+    private static DistributionSummary summary(String name, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .register(Metrics.globalRegistry);
+    }
+}
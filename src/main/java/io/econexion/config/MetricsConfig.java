@@ -0,0 +1,29 @@
+package io.econexion.config;
+
+import io.micrometer.core.instrument.binder.jvm.JvmHeapPressureMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas que Spring Boot no registra por sí solo. Lo que publica cada parte:
+ * <ul>
+ *   <li>Controladores: {@code http.server.requests}, uno por método HTTP y URI (Boot).</li>
+ *   <li>Servicios: {@code econexion.service}, por clase y método ({@code @Timed}).</li>
+ *   <li>Hibernate: {@code hibernate.statements}, {@code hibernate.entities.loads},
+ *       {@code hibernate.second.level.cache.*} (Boot, con {@code hibernate.generate_statistics})
+ *       y por sesión, que con open-in-view es por petición, {@link HibernateSessionMetrics}.</li>
+ *   <li>Hikari: {@code hikaricp.connections.pending/active/acquire} (Boot).</li>
+ *   <li>JVM: la tasa de asignación es {@code rate(jvm_gc_memory_allocated_bytes_total)} (Boot);
+ *       aquí se añaden {@code jvm.gc.overhead} y {@code jvm.memory.usage.after.gc}.</li>
+ * </ul>
+ * Los histogramas y buckets de SLO se configuran en {@code management.metrics.distribution}
+ * del application.yml.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public JvmHeapPressureMetrics jvmHeapPressureMetrics() {
+        return new JvmHeapPressureMetrics();
+    }
+}
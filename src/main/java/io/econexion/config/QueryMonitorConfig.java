@@ -0,0 +1,53 @@
+package io.econexion.config;
+
+import io.econexion.sql.CountingDataSource;
+import io.econexion.sql.QueryCountFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Conteo de sentencias SQL por petición ({@code econexion.queries.*}): envuelve el DataSource
+ * en un {@link CountingDataSource} y registra el {@link QueryCountFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "econexion.queries.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMonitorConfig {
+
+    @Bean
+    public static BeanPostProcessor countingDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${econexion.queries.slow-statement-ms:200}") long slowStatementMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+                    return new CountingDataSource(dataSource, slowStatementMs, registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(
+            MeterRegistry registry,
+            @Value("${econexion.queries.max-statements:30}") int maxStatements,
+            @Value("${econexion.queries.repeated-threshold:10}") int repeatedThreshold,
+            @Value("${econexion.queries.slow-request-ms:500}") long slowRequestMs,
+            @Value("${econexion.queries.debug-headers:false}") boolean debugHeaders) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(
+                new QueryCountFilter(registry, maxStatements, repeatedThreshold, slowRequestMs, debugHeaders));
+        // Antes de seguridad: cuenta también lo que hagan los filtros de autenticación
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package io.econexion.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Modo de ejecución con hilos virtuales ({@code spring.threads.virtual.enabled=true}).
+ * Tomcat atiende cada petición en un hilo virtual, así que el límite de concurrencia
+ * contra la base de datos lo pone el pool de Hikari ({@code spring.datasource.hikari.maximum-pool-size}).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry registry,
+            @Value("${econexion.threads.pinned-threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(registry, Duration.ofMillis(thresholdMs));
+    }
+}
@@ -0,0 +1,71 @@
+package io.econexion.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Escucha los eventos JFR {@code jdk.VirtualThreadPinned} y los publica como el timer
+ * {@code jvm.threads.virtual.pinned}, etiquetado según la librería que retuvo el hilo
+ * (hibernate, jdbc, hikari u other). Así se ve cuánto bloquean los {@code synchronized}
+ * del camino JPA/JDBC cuando las peticiones corren en hilos virtuales.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final MeterRegistry registry;
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.registry = registry;
+        this.stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::record);
+        stream.startAsync();
+    }
+
+    private void record(RecordedEvent event) {
+        String source = source(event.getStackTrace());
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier")
+                .tag("source", source)
+                .register(registry)
+                .record(event.getDuration());
+        if (log.isDebugEnabled() && event.getStackTrace() != null && !event.getStackTrace().getFrames().isEmpty()) {
+            log.debug("Virtual thread pinned for {} ms in {} ({})", event.getDuration().toMillis(), source,
+                    event.getStackTrace().getFrames().get(0).getMethod().getType().getName());
+        }
+    }
+
+    static String source(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "other";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("org.hibernate.")) {
+                return "hibernate";
+            }
+            if (type.startsWith("com.zaxxer.hikari.")) {
+                return "hikari";
+            }
+            if (type.startsWith("org.h2.") || type.startsWith("org.postgresql.")) {
+                return "jdbc";
+            }
+        }
+        return "other";
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -2,6 +2,8 @@ package io.econexion.controller;
 
 import java.util.UUID;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,9 +13,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.econexion.dtos.CreateOfferDTO;
+import io.econexion.dtos.OfferStatusChangeDTO;
 import io.econexion.model.Offer;
 import io.econexion.model.Post;
 import io.econexion.model.User;
@@ -68,11 +72,17 @@ public class OfferController {
             })
     @GetMapping("/{id}")
     public ResponseEntity<?> getOfferById(@PathVariable UUID id) {
-        Offer offer = offerService.findById(id);
-        if (offer == null) {
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(offer);
+        return offerService.findDetail(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Ofertas de un usuario",
+            description = "Ofertas hechas por el usuario, de la más reciente a la más antigua (limit por defecto 50, máximo 200)")
+    @GetMapping
+    public ResponseEntity<?> getOffersByUser(@RequestParam("userId") UUID userId,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(offerService.findByOfferer(userId, limit));
     }
 
     @Operation(summary = "Eliminar una oferta por ID",
@@ -85,16 +95,50 @@ public class OfferController {
     }
 
     @Operation(summary = "Actualizar una oferta",
-            description = "Actualiza los detalles de una oferta existente",
+            description = "Actualiza importe y mensaje de una oferta existente. El estado no se cambia aquí sino con PUT /offers/{id}/status; "
+                    + "si se envía version y la oferta cambió desde entonces responde 409",
             responses = {
                     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Oferta actualizada exitosamente"),
-                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Oferta no encontrada")
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Falta el id o la cantidad no es un número positivo"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Oferta no encontrada"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "La oferta cambió mientras tanto, o se cambia la cantidad de una oferta ya aceptada")
             })
     @PutMapping("/update")
     public ResponseEntity<?> updateOffer(@RequestBody Offer offer) {
-        if (offerService.findById(offer.getId()) == null) {
-            return ResponseEntity.notFound().build();
+        if (offer.getId() == null) {
+            return ResponseEntity.badRequest().body("id is required");
+        }
+        try {
+            return offerService.updateOffer(offer)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Aceptar o rechazar una oferta",
+            description = "Pasa una oferta pendiente a ACCEPTED o REJECTED con un único UPDATE condicional. "
+                    + "Al aceptarla descuenta su cantidad de la publicación. Si otra petición la cambió antes (o no está en la version enviada) "
+                    + "o no queda cantidad suficiente responde 409 sin modificarla",
+            responses = {
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Estado cambiado"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Estado destino no válido"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Oferta no encontrada"),
+                    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "La oferta ya no está pendiente, cambió de versión o no queda cantidad")
+            })
+    @PutMapping("/{id}/status")
+    public ResponseEntity<?> changeStatus(@PathVariable UUID id, @RequestBody OfferStatusChangeDTO request) {
+        try {
+            return offerService.changeStatus(id, request.getStatus(), request.getVersion())
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
-        return ResponseEntity.ok().body(offerService.createOffer(offer));
     }
 }
@@ -1,22 +1,34 @@
 package io.econexion.controller;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.econexion.dtos.CreatePostDto;
+import io.econexion.dtos.OfferSummaryDTO;
+import io.econexion.dtos.PostDetailDTO;
+import io.econexion.dtos.PostPageDTO;
+import io.econexion.dtos.PostSearchRequest;
+import io.econexion.imports.PostImportService;
 import io.econexion.model.Post;
 import io.econexion.model.User;
+import io.econexion.service.OfferService;
 import io.econexion.service.PostService;
 import io.econexion.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,25 +41,104 @@ import io.swagger.v3.oas.annotations.media.Content;
 public class PostController {
         private PostService postservice;
         private UserService userservice;
+        private PostImportService postImportService;
+        private OfferService offerService;
 
         @Autowired
-        public PostController(PostService postservice, UserService userservice) {
+        public PostController(PostService postservice, UserService userservice, PostImportService postImportService,
+                        OfferService offerService) {
                 this.postservice = postservice;
                 this.userservice = userservice;
+                this.postImportService = postImportService;
+                this.offerService = offerService;
         }
 
         // 
         
 
-        @Operation(summary = "Obtener un post por ID", description = "Devuelve un post específico por su UUID", responses = {
-                        @ApiResponse(responseCode = "200", description = "Post encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Post.class))),
+        @Operation(summary = "Obtener un post por ID", description = "Devuelve un post específico por su UUID (en el cuerpo). Igual que GET /posts/{id}", responses = {
+                        @ApiResponse(responseCode = "200", description = "Post encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PostDetailDTO.class))),
                         @ApiResponse(responseCode = "404", description = "Post no encontrado") })
         @GetMapping()
-        public ResponseEntity<?> getPostById(@RequestBody UUID id) throws NotFoundException {
-                return ResponseEntity.ok().body(postservice.findById(id));
+        public ResponseEntity<?> getPostById(@RequestBody UUID id) {
+                return getPost(id);
         }
 
-        @Operation(summary = "Actualizar un post", description = "Actualiza un post existente", responses = {
+        @Operation(summary = "Detalle de un post", description = "Post con su dueño y sus ofertas más recientes", responses = {
+                        @ApiResponse(responseCode = "200", description = "Post encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PostDetailDTO.class))),
+                        @ApiResponse(responseCode = "404", description = "Post no encontrado") })
+        @GetMapping("/{id}")
+        public ResponseEntity<?> getPost(@PathVariable UUID id) {
+                return postservice.findDetail(id)
+                                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+
+        @Operation(summary = "Ofertas de un post", description = "Ofertas del post de la más reciente a la más antigua (limit por defecto 50, máximo 200)", responses = {
+                        @ApiResponse(responseCode = "200", description = "Listado de ofertas", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OfferSummaryDTO.class))) })
+        @GetMapping("/{id}/offers")
+        public ResponseEntity<?> getPostOffers(@PathVariable UUID id,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                return ResponseEntity.ok().body(offerService.findByPost(id, limit));
+        }
+
+        @Operation(summary = "Buscar posts", description = "Filtra por material, ubicación y rangos de precio y cantidad. Ordena con sort=price|-price|quantity|-quantity y pagina con el cursor nextCursor de la respuesta anterior", responses = {
+                        @ApiResponse(responseCode = "200", description = "Página de resultados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PostPageDTO.class))),
+                        @ApiResponse(responseCode = "400", description = "Orden o cursor inválido") })
+        @GetMapping("/search")
+        public ResponseEntity<?> searchPosts(PostSearchRequest request) {
+                try {
+                        return ResponseEntity.ok().body(postservice.search(request));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(e.getMessage());
+                }
+        }
+
+        @Operation(summary = "Buscar posts por texto", description = "Busca en título y descripción y ordena por relevancia. Ignora tildes y plurales", responses = {
+                        @ApiResponse(responseCode = "200", description = "Posts encontrados, del más al menos relevante"),
+                        @ApiResponse(responseCode = "400", description = "Consulta vacía") })
+        @GetMapping("/search/text")
+        public ResponseEntity<?> searchPostsByText(@RequestParam("q") String q,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                if (q.isBlank()) {
+                        return ResponseEntity.badRequest().body("q is required");
+                }
+                return ResponseEntity.ok().body(postservice.searchText(q, limit));
+        }
+
+        @Operation(summary = "Buscar posts cercanos", description = "Devuelve los posts más cercanos a un punto, del más cercano al más lejano, con su distancia en km. Admite radio máximo (hasta 500 km) y filtro por material", responses = {
+                        @ApiResponse(responseCode = "200", description = "Posts encontrados"),
+                        @ApiResponse(responseCode = "400", description = "Coordenadas o radio inválidos") })
+        @GetMapping("/nearby")
+        public ResponseEntity<?> nearbyPosts(@RequestParam("lat") double lat, @RequestParam("lon") double lon,
+                        @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+                        @RequestParam(value = "material", required = false) String material,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                try {
+                        return ResponseEntity.ok().body(postservice.nearby(lat, lon, radiusKm, material, limit));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(e.getMessage());
+                }
+        }
+
+        @Operation(summary = "Importar posts en bloque", description = "Crea posts a nombre de ownerId desde un CSV (text/csv, con cabecera) o NDJSON (application/x-ndjson). Columnas: title, material, quantity, price, location y opcionales description, latitude, longitude. Responde en NDJSON con un evento error por fila rechazada, progress tras cada bloque guardado y done al final", responses = {
+                        @ApiResponse(responseCode = "200", description = "Importación en curso; ver los eventos de la respuesta"),
+                        @ApiResponse(responseCode = "404", description = "Usuario no encontrado") })
+        @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" }, produces = "application/x-ndjson")
+        public ResponseEntity<StreamingResponseBody> importPosts(@RequestParam("ownerId") UUID ownerId,
+                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+                try {
+                        userservice.findById(ownerId);
+                } catch (Exception e) {
+                        return ResponseEntity.notFound().build();
+                }
+                boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+                StreamingResponseBody events = out -> postImportService.importPosts(ownerId, body, csv, out);
+                return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(events);
+        }
+
+        @Operation(summary = "Actualizar un post", description = "Actualiza un post existente. La cantidad enviada se ignora: "
+                        + "se cambia con PUT /posts/{id}/quantity para no pisar lo reservado por ofertas aceptadas", responses = {
                         @ApiResponse(responseCode = "200", description = "Post actualizado exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Post.class))),
                         @ApiResponse(responseCode = "404", description = "Post no encontrado"),
                         @ApiResponse(responseCode = "400", description = "Solicitud inválida") })
@@ -57,6 +148,25 @@ public class PostController {
                 return ResponseEntity.ok().body("Post actualizado");
         }
 
+        @Operation(summary = "Ajustar la cantidad de un post", description = "Suma delta a la cantidad disponible (negativo para retirar) "
+                        + "con un UPDATE condicional que respeta las reservas de ofertas aceptadas", responses = {
+                        @ApiResponse(responseCode = "200", description = "Cantidad disponible tras el ajuste"),
+                        @ApiResponse(responseCode = "400", description = "delta no es un número finito"),
+                        @ApiResponse(responseCode = "404", description = "Post no encontrado"),
+                        @ApiResponse(responseCode = "409", description = "La cantidad quedaría negativa") })
+        @PutMapping("/{id}/quantity")
+        public ResponseEntity<?> adjustQuantity(@PathVariable UUID id, @RequestParam("delta") double delta) {
+                try {
+                        return postservice.adjustQuantity(id, delta)
+                                        .<ResponseEntity<?>>map(ResponseEntity::ok)
+                                        .orElseGet(() -> ResponseEntity.notFound().build());
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(e.getMessage());
+                } catch (IllegalStateException e) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+                }
+        }
+
         @Operation(summary = "Eliminar un post", description = "Elimina un post existente por su UUID", responses = {
                         @ApiResponse(responseCode = "200", description = "Post eliminado exitosamente"),
                         @ApiResponse(responseCode = "404", description = "Post no encontrado") })
@@ -1,17 +1,22 @@
 package io.econexion.controller;
 
 import io.econexion.dtos.CreateUserOAuth2Request;
+import io.econexion.dtos.UserPageDTO;
+import io.econexion.dtos.UserSummaryDTO;
 import io.econexion.model.User;
 import io.econexion.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -64,14 +69,38 @@ public class UserController {
                 }
         }
 
-        @Operation(summary = "Listar todos los usuarios", description = "Devuelve todos los usuarios almacenados en memoria", responses = {
-                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "si existen usuarios y retorna la lista de usuarios"),
+        @Operation(summary = "Listar usuarios por páginas", description = "Devuelve usuarios ordenados por email, sin contraseña. Para la siguiente página se envía el nextCursor de la respuesta anterior en cursor", responses = {
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Página de usuarios", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserPageDTO.class))),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Cursor inválido")
+        })
+        @GetMapping
+        public ResponseEntity<?> listPage(@RequestParam(value = "cursor", required = false) String cursor,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                try {
+                        return ResponseEntity.ok(service.listPage(cursor, limit));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(e.getMessage());
+                }
+        }
+
+        @Operation(summary = "Exportar usuarios", description = "Devuelve todos los usuarios como NDJSON (un objeto JSON por línea), sin contraseña, escribiendo a medida que se leen de la base de datos")
+        @GetMapping(value = "/export", produces = "application/x-ndjson")
+        public ResponseEntity<StreamingResponseBody> export() {
+                StreamingResponseBody body = service::exportSummaries;
+                return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+        }
+
+        @Operation(summary = "Listar todos los usuarios", deprecated = true, description = "Devuelve todos los usuarios en un solo arreglo. Usar GET /lab/users o /lab/users/export. "
+                        + "Cambio de API: antes devolvía la entidad User; ahora cada elemento es un UserSummaryDTO "
+                        + "(id, enterpriseName, username, nit, email, role) y ya no incluye el campo password", responses = {
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "si existen usuarios y retorna la lista de usuarios",
+                                        content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = UserSummaryDTO.class)))),
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "no se encontraron registros de usuarios en el back")
         })
 
         @GetMapping("/allUsers")
         public ResponseEntity<?> list() {
-                List<User> salida = service.findAll();
+                List<UserSummaryDTO> salida = service.findAllSummaries();
                 if (salida.isEmpty()) {
                         return ResponseEntity.notFound().build();
                 }
@@ -2,6 +2,7 @@ package io.econexion.dtos;
 
 import java.util.UUID;
 
+import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import lombok.Setter;
 @Getter 
@@ -9,5 +10,8 @@ import lombok.Setter;
 public class CreateOfferDTO {
     private UUID publicationId;
     private double amount;
+    // Opcional; si viene, mayor que 0 (OfferService también descarta NaN e infinitos)
+    @Positive
+    private Double quantity;
     private String message;
 }
@@ -0,0 +1,40 @@
+package io.econexion.dtos;
+
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Post encontrado por proximidad, con sus coordenadas y la distancia al punto consultado.
+ */
+@Getter
+public class NearbyPostDTO {
+    private UUID id;
+    private String title;
+    private String material;
+    private double quantity;
+    private double price;
+    private String location;
+    private UUID ownerId;
+    private double latitude;
+    private double longitude;
+    private OfferStatsDTO offerStats;
+    @Setter
+    private double distanceKm;
+
+    public NearbyPostDTO(UUID id, String title, String material, double quantity, double price,
+                         String location, UUID ownerId, double latitude, double longitude,
+                         long offerCount, long pendingOfferCount, double offerAmountSum, Double bestOfferAmount) {
+        this.id = id;
+        this.title = title;
+        this.material = material;
+        this.quantity = quantity;
+        this.price = price;
+        this.location = location;
+        this.ownerId = ownerId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.offerStats = OfferStatsDTO.of(offerCount, pendingOfferCount, offerAmountSum, bestOfferAmount);
+    }
+}
@@ -0,0 +1,31 @@
+package io.econexion.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import io.econexion.model.OfferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Detalle de una oferta. El post, el ofertante y la conversación van solo como id y nombre;
+ * los mensajes se piden aparte.
+ */
+@Getter
+@AllArgsConstructor
+public class OfferDetailDTO {
+    private UUID id;
+    private double amount;
+    private Double quantity;
+    private String message;
+    private LocalDateTime date;
+    private LocalDateTime expiresAt;
+    private OfferStatus status;
+    // Para PUT /offers/{id}/status: si cambió desde que se leyó, la transición responde 409
+    private Long version;
+    private UUID publicationId;
+    private String publicationTitle;
+    private UUID offererId;
+    private String offererName;
+    private UUID conversationId;
+}
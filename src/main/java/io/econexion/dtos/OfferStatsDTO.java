@@ -0,0 +1,21 @@
+package io.econexion.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resumen de las ofertas de un post: total, pendientes, mejor oferta y promedio. Se lee de las
+ * columnas agregadas del post, sin recorrer las ofertas.
+ */
+@Getter
+@AllArgsConstructor
+public class OfferStatsDTO {
+    private long count;
+    private long pending;
+    private Double best;
+    private Double average;
+
+    public static OfferStatsDTO of(long count, long pending, double amountSum, Double best) {
+        return new OfferStatsDTO(count, pending, best, count > 0 ? amountSum / count : null);
+    }
+}
@@ -0,0 +1,16 @@
+package io.econexion.dtos;
+
+import io.econexion.model.OfferStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Petición de cambio de estado. {@code version} es opcional: sin ella solo se comprueba
+ * que la oferta siga pendiente.
+ */
+@Getter
+@Setter
+public class OfferStatusChangeDTO {
+    private OfferStatus status;
+    private Long version;
+}
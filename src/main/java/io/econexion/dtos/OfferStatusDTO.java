@@ -0,0 +1,19 @@
+package io.econexion.dtos;
+
+import java.util.UUID;
+
+import io.econexion.model.OfferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de una transición de estado: el estado nuevo y la versión con la que seguir
+ * ({@code null} si la petición no traía versión).
+ */
+@Getter
+@AllArgsConstructor
+public class OfferStatusDTO {
+    private UUID id;
+    private OfferStatus status;
+    private Long version;
+}
@@ -0,0 +1,27 @@
+package io.econexion.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import io.econexion.model.OfferStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Oferta en listados: importe, estado, post y ofertante, sin el mensaje ni la conversación.
+ */
+@Getter
+@AllArgsConstructor
+public class OfferSummaryDTO {
+    private UUID id;
+    private double amount;
+    private Double quantity;
+    private OfferStatus status;
+    // Para PUT /offers/{id}/status: si cambió desde que se leyó, la transición responde 409
+    private Long version;
+    private LocalDateTime date;
+    private UUID publicationId;
+    private String publicationTitle;
+    private UUID offererId;
+    private String offererName;
+}
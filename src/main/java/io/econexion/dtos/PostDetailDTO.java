@@ -0,0 +1,47 @@
+package io.econexion.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Detalle de un post con su dueño (id y nombre), el resumen de sus ofertas y las más recientes. Se arma con una
+ * consulta para el post y otra para las ofertas; el listado completo está en
+ * {@code GET /posts/{id}/offers}.
+ */
+@Getter
+public class PostDetailDTO {
+    private UUID id;
+    private String title;
+    private String material;
+    private double quantity;
+    private double price;
+    private String location;
+    private String description;
+    private Double latitude;
+    private Double longitude;
+    private UUID ownerId;
+    private String ownerName;
+    private OfferStatsDTO offerStats;
+    @Setter
+    private List<OfferSummaryDTO> latestOffers = List.of();
+
+    public PostDetailDTO(UUID id, String title, String material, double quantity, double price, String location,
+                         String description, Double latitude, Double longitude, UUID ownerId, String ownerName,
+                         long offerCount, long pendingOfferCount, double offerAmountSum, Double bestOfferAmount) {
+        this.id = id;
+        this.title = title;
+        this.material = material;
+        this.quantity = quantity;
+        this.price = price;
+        this.location = location;
+        this.description = description;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.ownerId = ownerId;
+        this.ownerName = ownerName;
+        this.offerStats = OfferStatsDTO.of(offerCount, pendingOfferCount, offerAmountSum, bestOfferAmount);
+    }
+}
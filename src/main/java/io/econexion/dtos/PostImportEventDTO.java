@@ -0,0 +1,35 @@
+package io.econexion.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento de la respuesta NDJSON de POST /posts/import:
+ * {@code error} para cada fila rechazada, {@code progress} tras cada bloque confirmado y
+ * {@code done} al final con los totales.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostImportEventDTO {
+    private String type;
+    private Long line;
+    private String message;
+    private Long imported;
+    private Long failed;
+    private Long elapsedMs;
+
+    public static PostImportEventDTO error(long line, String message) {
+        return new PostImportEventDTO("error", line, message, null, null, null);
+    }
+
+    public static PostImportEventDTO progress(long line, long imported, long failed) {
+        return new PostImportEventDTO("progress", line, null, imported, failed, null);
+    }
+
+    public static PostImportEventDTO done(long imported, long failed, long elapsedMs) {
+        return new PostImportEventDTO("done", null, null, imported, failed, elapsedMs);
+    }
+}
@@ -0,0 +1,17 @@
+package io.econexion.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Página de resultados de búsqueda de posts. {@code nextCursor} es opaco y va en
+ * {@code cursor} para pedir la siguiente página; es {@code null} en la última.
+ */
+@Getter
+@AllArgsConstructor
+public class PostPageDTO {
+    private List<PostSummaryDTO> items;
+    private String nextCursor;
+}
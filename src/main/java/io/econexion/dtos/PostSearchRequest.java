@@ -0,0 +1,20 @@
+package io.econexion.dtos;
+
+import lombok.Data;
+
+/**
+ * Filtros de GET /posts/search. Todos opcionales.
+ * {@code sort}: price (por defecto), -price, quantity o -quantity.
+ */
+@Data
+public class PostSearchRequest {
+    private String material;
+    private String location;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minQuantity;
+    private Double maxQuantity;
+    private String sort;
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,33 @@
+package io.econexion.dtos;
+
+import java.util.UUID;
+
+import lombok.Getter;
+
+/**
+ * Vista resumida de un post para listados y búsquedas (sin ofertas ni dueño completo).
+ */
+@Getter
+public class PostSummaryDTO {
+    private UUID id;
+    private String title;
+    private String material;
+    private double quantity;
+    private double price;
+    private String location;
+    private UUID ownerId;
+    private OfferStatsDTO offerStats;
+
+    public PostSummaryDTO(UUID id, String title, String material, double quantity, double price, String location,
+                          UUID ownerId, long offerCount, long pendingOfferCount, double offerAmountSum,
+                          Double bestOfferAmount) {
+        this.id = id;
+        this.title = title;
+        this.material = material;
+        this.quantity = quantity;
+        this.price = price;
+        this.location = location;
+        this.ownerId = ownerId;
+        this.offerStats = OfferStatsDTO.of(offerCount, pendingOfferCount, offerAmountSum, bestOfferAmount);
+    }
+}
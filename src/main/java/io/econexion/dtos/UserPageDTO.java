@@ -0,0 +1,17 @@
+package io.econexion.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Página del listado de usuarios, ordenado por email. {@code nextCursor} es opaco y va en
+ * {@code cursor} para pedir la siguiente página; es {@code null} en la última.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPageDTO {
+    private List<UserSummaryDTO> items;
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package io.econexion.dtos;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Datos públicos de un usuario para listados y exportaciones (sin contraseña).
+ */
+@Getter
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private UUID id;
+    private String enterpriseName;
+    private String username;
+    private String nit;
+    private String email;
+    private String role;
+}
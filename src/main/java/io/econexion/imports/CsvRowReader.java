@@ -0,0 +1,122 @@
+package io.econexion.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV según RFC 4180: la primera fila son los nombres de columna, los campos pueden ir entre
+ * comillas dobles (con {@code ""} para una comilla y saltos de línea dentro). Acepta fin de
+ * línea LF o CRLF. El número de línea de cada fila es el de su primera línea física.
+ */
+final class CsvRowReader implements RowReader {
+
+    private final Reader reader;
+    private List<String> header;
+    private long line = 1;
+    private int peeked = -2;
+
+    CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public RawRow next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = names.stream().map(n -> n.replace("\uFEFF", "").trim()).toList();
+        }
+        List<String> values;
+        long start;
+        do {
+            start = line;
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+        if (values.size() != header.size()) {
+            return RawRow.malformed(start, "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return RawRow.of(start, fields);
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    // Comilla sin cerrar al final del archivo: se toma lo leído
+                    values.add(field.toString());
+                    return values;
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c < 0) {
+                if (c == '\n') {
+                    line++;
+                }
+                values.add(field.toString());
+                return values;
+            } else if (c == '\r') {
+                int n = read();
+                if (n != '\n') {
+                    unread(n);
+                }
+                line++;
+                values.add(field.toString());
+                return values;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        peeked = c;
+    }
+}
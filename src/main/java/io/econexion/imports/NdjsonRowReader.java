@@ -0,0 +1,50 @@
+package io.econexion.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Un objeto JSON por línea. Cada línea se interpreta por separado, así que una línea mal
+ * formada solo invalida esa fila. Las líneas en blanco se ignoran.
+ */
+final class NdjsonRowReader implements RowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public RawRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return RawRow.malformed(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return RawRow.malformed(line, "Expected a JSON object");
+            }
+            Map<String, String> fields = new LinkedHashMap<>();
+            node.fields().forEachRemaining(e -> fields.put(e.getKey(), e.getValue().isNull() ? null : e.getValue().asText()));
+            return RawRow.of(line, fields);
+        }
+        return null;
+    }
+}
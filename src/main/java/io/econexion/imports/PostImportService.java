@@ -0,0 +1,250 @@
+package io.econexion.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.econexion.dtos.PostImportEventDTO;
+import io.econexion.search.GeoGrid;
+import io.econexion.search.PostTextIndex;
+
+/**
+ * Importación masiva de posts desde CSV o NDJSON.
+ * <p>
+ * Lee el archivo fila a fila, valida cada una y escribe las válidas en bloques de
+ * {@code econexion.posts.import.chunk-size} filas, cada bloque en su propia transacción y
+ * con un solo batch JDBC. Si un bloque falla en la base de datos se reintenta fila a fila
+ * para señalar las filas culpables sin perder las demás. Los errores y el progreso se
+ * escriben en la respuesta a medida que ocurren; en memoria solo hay un bloque.
+ * <p>
+ * En PostgreSQL conviene {@code reWriteBatchedInserts=true} en la URL para que el driver
+ * junte el batch en INSERTs de varias filas.
+ */
+@Service
+public class PostImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    private static final String INSERT =
+            "insert into publications (id, title, material, quantity, price, location, description, " +
+            "latitude, longitude, geo_cell, user_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Longitud por defecto de las columnas de texto de publications
+    private static final int MAX_TEXT = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostTextIndex postTextIndex;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public PostImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             PostTextIndex postTextIndex, ObjectMapper objectMapper,
+                             @Value("${econexion.posts.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postTextIndex = postTextIndex;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importa los posts de {@code in} a nombre de {@code ownerId} y escribe los eventos en
+     * {@code out} como NDJSON. {@code csv} indica el formato de entrada; si es falso es NDJSON.
+     */
+    public void importPosts(UUID ownerId, InputStream in, boolean csv, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        RowReader rows = csv ? new CsvRowReader(reader) : new NdjsonRowReader(reader, objectMapper);
+        List<ImportedPost> chunk = new ArrayList<>(chunkSize);
+        long imported = 0;
+        long failed = 0;
+        long lastLine = 0;
+        RawRow raw;
+        while ((raw = rows.next()) != null) {
+            lastLine = raw.line();
+            String error = raw.error();
+            ImportedPost post = null;
+            if (error == null) {
+                try {
+                    post = ImportedPost.from(raw, ownerId);
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                failed++;
+                emit(out, PostImportEventDTO.error(raw.line(), error));
+                continue;
+            }
+            chunk.add(post);
+            if (chunk.size() == chunkSize) {
+                int written = writeChunk(chunk, out);
+                imported += written;
+                failed += chunk.size() - written;
+                chunk.clear();
+                emit(out, PostImportEventDTO.progress(lastLine, imported, failed));
+                out.flush();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int written = writeChunk(chunk, out);
+            imported += written;
+            failed += chunk.size() - written;
+        }
+        long elapsed = System.currentTimeMillis() - started;
+        emit(out, PostImportEventDTO.done(imported, failed, elapsed));
+        out.flush();
+        log.info("Imported {} posts for user {} ({} rejected) in {} ms", imported, ownerId, failed, elapsed);
+    }
+
+    private int writeChunk(List<ImportedPost> chunk, OutputStream out) throws IOException {
+        int written;
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            written = chunk.size();
+        } catch (DataAccessException e) {
+            log.debug("Import chunk failed, retrying row by row", e);
+            written = 0;
+            List<ImportedPost> ok = new ArrayList<>(chunk.size());
+            for (ImportedPost post : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(post)));
+                    ok.add(post);
+                    written++;
+                } catch (DataAccessException rowError) {
+                    emit(out, PostImportEventDTO.error(post.line, "Rejected by database: "
+                            + rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+            ok.forEach(p -> postTextIndex.index(p.id, p.title, p.description));
+            return written;
+        }
+        chunk.forEach(p -> postTextIndex.index(p.id, p.title, p.description));
+        return written;
+    }
+
+    private void insert(List<ImportedPost> posts) {
+        jdbcTemplate.batchUpdate(INSERT, posts, posts.size(), (ps, p) -> {
+            ps.setObject(1, p.id);
+            ps.setString(2, p.title);
+            ps.setString(3, p.material);
+            ps.setDouble(4, p.quantity);
+            ps.setDouble(5, p.price);
+            ps.setString(6, p.location);
+            ps.setString(7, p.description);
+            ps.setObject(8, p.latitude);
+            ps.setObject(9, p.longitude);
+            ps.setObject(10, p.latitude != null ? GeoGrid.cellOf(p.latitude, p.longitude) : null);
+            ps.setObject(11, p.ownerId);
+        });
+    }
+
+    private void emit(OutputStream out, PostImportEventDTO event) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(event));
+        out.write('\n');
+    }
+
+    /**
+     * Fila ya validada y lista para insertar.
+     */
+    private static final class ImportedPost {
+        private final long line;
+        private final UUID id = UUID.randomUUID();
+        private final UUID ownerId;
+        private String title;
+        private String material;
+        private double quantity;
+        private double price;
+        private String location;
+        private String description;
+        private Double latitude;
+        private Double longitude;
+
+        private ImportedPost(long line, UUID ownerId) {
+            this.line = line;
+            this.ownerId = ownerId;
+        }
+
+        static ImportedPost from(RawRow row, UUID ownerId) {
+            return new ImportedPost(row.line(), ownerId).fill(row.fields());
+        }
+
+        private ImportedPost fill(Map<String, String> f) {
+            title = text(f, "title", true);
+            material = text(f, "material", true);
+            location = text(f, "location", true);
+            description = text(f, "description", false);
+            quantity = number(f, "quantity");
+            price = number(f, "price");
+            if (quantity < 0 || price < 0) {
+                throw new IllegalArgumentException("quantity and price must not be negative");
+            }
+            String lat = blankToNull(f.get("latitude"));
+            String lon = blankToNull(f.get("longitude"));
+            if ((lat == null) != (lon == null)) {
+                throw new IllegalArgumentException("latitude and longitude must be given together");
+            }
+            if (lat != null) {
+                latitude = number(f, "latitude");
+                longitude = number(f, "longitude");
+                if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                    throw new IllegalArgumentException("Coordinates out of range");
+                }
+            }
+            return this;
+        }
+
+        private static String text(Map<String, String> f, String name, boolean required) {
+            String value = blankToNull(f.get(name));
+            if (value == null) {
+                if (required) {
+                    throw new IllegalArgumentException(name + " is required");
+                }
+                return null;
+            }
+            value = value.trim();
+            if (value.length() > MAX_TEXT) {
+                throw new IllegalArgumentException(name + " is longer than " + MAX_TEXT + " characters");
+            }
+            return value;
+        }
+
+        private static double number(Map<String, String> f, String name) {
+            String value = blankToNull(f.get(name));
+            if (value == null) {
+                throw new IllegalArgumentException(name + " is required");
+            }
+            try {
+                double d = Double.parseDouble(value.trim());
+                if (!Double.isFinite(d)) {
+                    throw new NumberFormatException();
+                }
+                return d;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " is not a number: " + value);
+            }
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+}
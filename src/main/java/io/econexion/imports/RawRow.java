@@ -0,0 +1,18 @@
+package io.econexion.imports;
+
+import java.util.Map;
+
+/**
+ * Fila leída de un archivo de importación, antes de validar. Si no se pudo interpretar,
+ * {@code fields} es nulo y {@code error} explica por qué.
+ */
+record RawRow(long line, Map<String, String> fields, String error) {
+
+    static RawRow of(long line, Map<String, String> fields) {
+        return new RawRow(line, fields, null);
+    }
+
+    static RawRow malformed(long line, String error) {
+        return new RawRow(line, null, error);
+    }
+}
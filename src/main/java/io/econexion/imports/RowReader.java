@@ -0,0 +1,14 @@
+package io.econexion.imports;
+
+import java.io.IOException;
+
+/**
+ * Lee un archivo de importación fila a fila sin cargarlo entero en memoria.
+ */
+interface RowReader {
+
+    /**
+     * La siguiente fila, o {@code null} al final del archivo.
+     */
+    RawRow next() throws IOException;
+}
@@ -5,6 +5,8 @@ import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,7 +16,12 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "offers")
+@Table(name = "offers", indexes = {
+        // (publication_id, amount): recalcular la mejor oferta de un post al quitar la mejor
+        @Index(name = "idx_offers_publication_amount", columnList = "publication_id, amount"),
+        // (status, expires_at): el expirador solo recorre las pendientes ya vencidas
+        @Index(name = "idx_offers_status_expires", columnList = "status, expires_at")
+})
 public class Offer {
 
     @Id
@@ -25,12 +32,20 @@ public class Offer {
     @Column(name = "amount", nullable = false)
     private double amount;
 
+    // Cantidad del lote que pide la oferta; al aceptarla se descuenta de Post.quantity. Sin ella no reserva nada
+    @Column(name = "quantity")
+    private Double quantity;
+
     @Column(name = "message", columnDefinition = "TEXT")
     private String message;
 
     @Column(name = "date", nullable = false, updatable = false)
     private LocalDateTime date = LocalDateTime.now();
 
+    // Hasta cuándo puede seguir PENDING; después OfferExpiryScheduler la pasa a EXPIRED. Null: no expira
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @ManyToOne
     @JoinColumn(name = "publication_id", nullable = false)
     @JsonBackReference("post-offers")
@@ -46,6 +61,12 @@ public class Offer {
     @Column(name = "status", nullable = false)
     private OfferStatus status = OfferStatus.PENDING;
 
+    // Versión para el control optimista: cada UPDATE la sube, también las transiciones de estado
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToOne(mappedBy = "offer", cascade = CascadeType.ALL)
     private Conversation conversation;
 }
@@ -1,8 +1,25 @@
 package io.econexion.model;
 
+/**
+ * Estados de una oferta: nace {@link #PENDING} y el vendedor la acepta o la rechaza una sola vez;
+ * si nadie lo hace antes de {@code Offer.expiresAt} pasa a {@link #EXPIRED}.
+ * {@link #ACCEPTED}, {@link #REJECTED} y {@link #EXPIRED} son finales.
+ */
 public enum OfferStatus {
     PENDING,
     ACCEPTED,
-    REJECTED
-    
+    REJECTED,
+    EXPIRED;
+
+    public boolean canTransitionTo(OfferStatus next) {
+        return this == PENDING && (next == ACCEPTED || next == REJECTED || next == EXPIRED);
+    }
+
+    /**
+     * Estado desde el que se llega a {@code next}, o {@code null} si a {@code next} no se llega
+     * con una transición.
+     */
+    public static OfferStatus sourceOf(OfferStatus next) {
+        return PENDING.canTransitionTo(next) ? PENDING : null;
+    }
 }
@@ -6,13 +6,26 @@ import java.util.List;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import io.econexion.search.GeoGrid;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "publications")
+// Índices para GET /posts/search: cada filtro de igualdad combinado con cada orden, más id para el cursor
+@Table(name = "publications", indexes = {
+        @Index(name = "idx_publications_price", columnList = "price, id"),
+        @Index(name = "idx_publications_quantity", columnList = "quantity, id"),
+        @Index(name = "idx_publications_material_price", columnList = "material, price, id"),
+        @Index(name = "idx_publications_material_quantity", columnList = "material, quantity, id"),
+        @Index(name = "idx_publications_location_price", columnList = "location, price, id"),
+        @Index(name = "idx_publications_location_quantity", columnList = "location, quantity, id"),
+        @Index(name = "idx_publications_geo_cell", columnList = "geo_cell"),
+        @Index(name = "idx_publications_material_geo_cell", columnList = "material, geo_cell")
+})
 @Data
 
 public class Post {
@@ -29,8 +42,11 @@ public class Post {
     @Column(name = "material", nullable = false)
     private String material;
 
+    // Cantidad disponible. Tras el alta solo la cambian los UPDATE condicionales de PostRepository
+    // (reservas de ofertas aceptadas y PostService.adjustQuantity); un PUT /posts/update con la
+    // cantidad que el cliente leyó antes no pisa lo ya reservado
     @NonNull
-    @Column(name = "quantity", nullable = false)
+    @Column(name = "quantity", nullable = false, updatable = false)
     private double quantity;
 
     @NonNull
@@ -44,6 +60,35 @@ public class Post {
     @Column(name = "description")
     private String description;
 
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    // Celda de GeoGrid derivada de las coordenadas, para la búsqueda por proximidad
+    @JsonIgnore
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
+    // Agregados de las ofertas, mantenidos por OfferService en la misma transacción que la oferta
+    // (PostRepository.addOffer/removeOffer). Nunca los escribe un save() del post.
+    @ColumnDefault("0")
+    @Column(name = "offer_count", nullable = false, insertable = false, updatable = false)
+    private long offerCount;
+
+    @ColumnDefault("0")
+    @Column(name = "pending_offer_count", nullable = false, insertable = false, updatable = false)
+    private long pendingOfferCount;
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "offer_amount_sum", nullable = false, insertable = false, updatable = false)
+    private double offerAmountSum;
+
+    @Column(name = "best_offer_amount", insertable = false, updatable = false)
+    private Double bestOfferAmount;
+
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference("user-posts")
@@ -56,4 +101,10 @@ public class Post {
     public Post() {
     }
 
+    @PrePersist
+    @PreUpdate
+    void updateGeoCell() {
+        geoCell = latitude != null && longitude != null ? GeoGrid.cellOf(latitude, longitude) : null;
+    }
+
 }
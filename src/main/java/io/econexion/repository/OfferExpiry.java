@@ -0,0 +1,16 @@
+package io.econexion.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Expiración en bloque de ofertas pendientes, con sentencias por conjunto en vez de una por oferta.
+ */
+public interface OfferExpiry {
+
+    /**
+     * Pasa a EXPIRED hasta {@code limit} ofertas PENDING con {@code expires_at <= now}, las más
+     * antiguas primero, y descuenta las pendientes de sus posts. Debe llamarse dentro de una
+     * transacción. Devuelve cuántas expiró; si es menos que {@code limit} no quedan más vencidas.
+     */
+    int expirePending(LocalDateTime now, int limit);
+}
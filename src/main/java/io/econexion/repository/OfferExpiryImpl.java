@@ -0,0 +1,82 @@
+package io.econexion.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+/**
+ * Un lote de expiración son tres sentencias, sea cual sea su tamaño: SELECT ... FOR UPDATE de las
+ * vencidas por el índice (status, expires_at), un UPDATE con la lista de ids y un batch con las
+ * pendientes de cada post. En PostgreSQL con SKIP LOCKED, así que varios nodos expiran a la vez
+ * lotes distintos sin esperarse; H2 no lo soporta y bloquea.
+ * <p>
+ * Las filas quedan bloqueadas hasta el commit, así que el UPDATE cambia todas las seleccionadas y
+ * un accept concurrente de la misma oferta espera y luego no la encuentra PENDING.
+ */
+public class OfferExpiryImpl implements OfferExpiry {
+
+    private static final String PG_SELECT =
+            "select id, publication_id from offers where status = 'PENDING' and expires_at <= ? " +
+            "order by expires_at limit ? for update skip locked";
+
+    private static final String H2_SELECT =
+            "select id, publication_id from offers where status = 'PENDING' and expires_at <= ? " +
+            "order by expires_at limit ? for update";
+
+    private static final String EXPIRE =
+            "update offers set status = 'EXPIRED', version = version + 1 where id in (:ids)";
+
+    private static final String PENDING_COUNTS =
+            "update publications set pending_offer_count = pending_offer_count - ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private volatile Boolean postgres;
+
+    public OfferExpiryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public int expirePending(LocalDateTime now, int limit) {
+        List<UUID> ids = new ArrayList<>(limit);
+        // Ordenado por id de post: dos lotes concurrentes actualizan los posts en el mismo orden
+        Map<UUID, Long> perPost = new TreeMap<>();
+        jdbcTemplate.query(isPostgres() ? PG_SELECT : H2_SELECT, rs -> {
+            ids.add(rs.getObject("id", UUID.class));
+            perPost.merge(rs.getObject("publication_id", UUID.class), 1L, Long::sum);
+        }, now, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        namedJdbcTemplate.update(EXPIRE, Map.of("ids", ids));
+        List<Object[]> counts = new ArrayList<>(perPost.size());
+        perPost.forEach((postId, n) -> counts.add(new Object[]{n, postId}));
+        jdbcTemplate.batchUpdate(PENDING_COUNTS, counts);
+        return ids.size();
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                        metaData -> metaData.getDatabaseProductName());
+                pg = "PostgreSQL".equalsIgnoreCase(product);
+            } catch (MetaDataAccessException e) {
+                pg = false;
+            }
+            postgres = pg;
+        }
+        return pg;
+    }
+}
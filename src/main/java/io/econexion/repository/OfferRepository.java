@@ -1,14 +1,69 @@
 package io.econexion.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import io.econexion.dtos.OfferDetailDTO;
+import io.econexion.dtos.OfferSummaryDTO;
 import io.econexion.model.Offer;
+import io.econexion.model.OfferStatus;
 
 @Repository
-public interface OfferRepository extends JpaRepository<Offer, UUID> {
+public interface OfferRepository extends JpaRepository<Offer, UUID>, OfferExpiry {
 
-    
+    // Proyecciones: cargar la entidad arrastra la conversación (OneToOne inverso, siempre EAGER)
+
+    @Query("select new io.econexion.dtos.OfferDetailDTO(o.id, o.amount, o.quantity, o.message, o.date, o.expiresAt, o.status, o.version, " +
+           "p.id, p.title, u.id, u.username, c.id) " +
+           "from Offer o join o.publication p join o.offerer u left join o.conversation c where o.id = :id")
+    Optional<OfferDetailDTO> findDetailById(UUID id);
+
+    @Query("select new io.econexion.dtos.OfferSummaryDTO(o.id, o.amount, o.quantity, o.status, o.version, o.date, p.id, p.title, u.id, u.username) " +
+           "from Offer o join o.publication p join o.offerer u where p.id = :postId order by o.date desc, o.id")
+    List<OfferSummaryDTO> findSummariesByPostId(UUID postId, Limit limit);
+
+    @Query("select new io.econexion.dtos.OfferSummaryDTO(o.id, o.amount, o.quantity, o.status, o.version, o.date, p.id, p.title, u.id, u.username) " +
+           "from Offer o join o.publication p join o.offerer u where u.id = :userId order by o.date desc, o.id")
+    List<OfferSummaryDTO> findSummariesByOffererId(UUID userId, Limit limit);
+
+    @Query("select o.publication.id as postId, o.amount as amount, o.quantity as quantity, o.status as status, " +
+           "o.version as version, o.expiresAt as expiresAt " +
+           "from Offer o where o.id = :id")
+    Optional<OfferState> findStateById(UUID id);
+
+    /**
+     * Cambia el estado solo si la oferta sigue en {@code from}, no ha vencido en {@code now} y,
+     * si se indica, está en la versión {@code version}; sube la versión. Devuelve 0 si otra
+     * petición la cambió antes: sin leer la fila ni bloquearla más allá del propio UPDATE.
+     */
+    @Modifying
+    @Query("update Offer o set o.status = :to, o.version = o.version + 1 " +
+           "where o.id = :id and o.status = :from and (:version is null or o.version = :version) " +
+           "and (o.expiresAt is null or o.expiresAt > :now)")
+    int transition(UUID id, OfferStatus from, OfferStatus to, Long version, LocalDateTime now);
+
+    /**
+     * Lo que cuenta en los agregados del post de una oferta.
+     */
+    interface OfferState {
+        UUID getPostId();
+
+        double getAmount();
+
+        Double getQuantity();
+
+        OfferStatus getStatus();
+
+        Long getVersion();
+
+        LocalDateTime getExpiresAt();
+    }
 }
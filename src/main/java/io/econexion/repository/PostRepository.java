@@ -1,13 +1,116 @@
 package io.econexion.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import io.econexion.dtos.PostDetailDTO;
+import io.econexion.dtos.PostSummaryDTO;
 import io.econexion.model.Post;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, UUID> {
+public interface PostRepository extends JpaRepository<Post, UUID>, PostSearch {
 
+    @Query("select new io.econexion.dtos.PostDetailDTO(p.id, p.title, p.material, p.quantity, p.price, p.location, " +
+           "p.description, p.latitude, p.longitude, u.id, u.username, " +
+           "p.offerCount, p.pendingOfferCount, p.offerAmountSum, p.bestOfferAmount) from Post p join p.owner u where p.id = :id")
+    Optional<PostDetailDTO> findDetailById(UUID id);
+
+    @Query("select new io.econexion.dtos.PostSummaryDTO(p.id, p.title, p.material, p.quantity, p.price, p.location, p.owner.id, " +
+           "p.offerCount, p.pendingOfferCount, p.offerAmountSum, p.bestOfferAmount) from Post p where p.id in :ids")
+    List<PostSummaryDTO> findSummariesByIdIn(Collection<UUID> ids);
+
+    // Búsqueda por LIKE mientras el índice de texto se construye; el patrón llega con %, _ y \ escapados
+    @Query("select new io.econexion.dtos.PostSummaryDTO(p.id, p.title, p.material, p.quantity, p.price, p.location, p.owner.id, " +
+           "p.offerCount, p.pendingOfferCount, p.offerAmountSum, p.bestOfferAmount) from Post p where lower(p.title) like :pattern escape '\\' or lower(p.description) like :pattern escape '\\' " +
+           "order by p.id")
+    List<PostSummaryDTO> searchTextFallback(String pattern, Limit limit);
+
+    /**
+     * Suma una oferta a los agregados del post. Un solo UPDATE: las ofertas concurrentes sobre
+     * el mismo post se serializan en el bloqueo de la fila y ninguna se pierde. Es SQL nativo
+     * porque Hibernate genera un cast inválido en H2 para {@code double + parámetro} en JPQL.
+     */
+    @Modifying
+    @Query(value = "update publications set offer_count = offer_count + 1, " +
+           "pending_offer_count = pending_offer_count + :pending, offer_amount_sum = offer_amount_sum + :amount, " +
+           "best_offer_amount = case when best_offer_amount is null or best_offer_amount < :amount " +
+           "then :amount else best_offer_amount end where id = :postId", nativeQuery = true)
+    int addOffer(UUID postId, double amount, long pending);
+
+    /**
+     * Resta una oferta de los agregados. La mejor oferta no se puede restar: si la quitada podía
+     * serlo se recalcula con {@link #recomputeBestOffer}.
+     */
+    @Modifying
+    @Query(value = "update publications set offer_count = offer_count - 1, " +
+           "pending_offer_count = pending_offer_count - :pending, offer_amount_sum = offer_amount_sum - :amount " +
+           "where id = :postId", nativeQuery = true)
+    int removeOffer(UUID postId, double amount, long pending);
+
+    /**
+     * Recalcula la mejor oferta solo si la quitada ({@code removedAmount}) era la mejor; usa el
+     * índice (publication_id, amount) de offers. Las ofertas ya deben estar escritas (flush).
+     */
+    @Modifying
+    @Query(value = "update publications set best_offer_amount = " +
+           "(select max(o.amount) from offers o where o.publication_id = :postId) " +
+           "where id = :postId and best_offer_amount <= :removedAmount", nativeQuery = true)
+    int recomputeBestOffer(UUID postId, double removedAmount);
+
+    /**
+     * Ajusta las ofertas pendientes del post de una oferta cuando esta cambia de estado, sin
+     * leer antes la oferta para conocer su post.
+     */
+    @Modifying
+    @Query(value = "update publications set pending_offer_count = pending_offer_count + :delta " +
+           "where id = (select o.publication_id from offers o where o.id = :offerId)", nativeQuery = true)
+    int adjustPendingOffers(UUID offerId, long delta);
+
+    /**
+     * Reserva la cantidad de una oferta que se acepta: la descuenta de {@code quantity} solo si
+     * queda suficiente, y ajusta las pendientes. Es un UPDATE condicional sobre la fila del post,
+     * sin leerla antes, así que los aceptos concurrentes sobre el mismo lote no pueden dejarlo en
+     * negativo. Devuelve 0 si no queda cantidad.
+     */
+    @Modifying
+    @Query(value = "update publications set " +
+           "quantity = quantity - (select coalesce(o.quantity, 0) from offers o where o.id = :offerId), " +
+           "pending_offer_count = pending_offer_count + :pendingDelta " +
+           "where id = (select o.publication_id from offers o where o.id = :offerId) " +
+           "and quantity >= (select coalesce(o.quantity, 0) from offers o where o.id = :offerId)", nativeQuery = true)
+    int reserveForOffer(UUID offerId, long pendingDelta);
+
+    /**
+     * Devuelve al post la cantidad reservada por una oferta aceptada que se elimina.
+     */
+    @Modifying
+    @Query(value = "update publications set quantity = quantity + :quantity where id = :postId", nativeQuery = true)
+    int releaseQuantity(UUID postId, double quantity);
+
+    /**
+     * Suma {@code delta} (negativo para retirar) a la cantidad disponible sin dejarla por debajo
+     * de cero. Devuelve 0 si el post no existe o no queda cantidad suficiente.
+     */
+    @Modifying
+    @Query(value = "update publications set quantity = quantity + :delta where id = :postId and quantity + :delta >= 0", nativeQuery = true)
+    int adjustQuantity(UUID postId, double delta);
+
+    @Query("select p.quantity from Post p where p.id = :id")
+    Optional<Double> findQuantityById(UUID id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id as id, p.title as title, p.description as description from Post p")
+    Stream<PostTextView> streamAllText();
 }
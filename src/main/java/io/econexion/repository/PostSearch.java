@@ -0,0 +1,24 @@
+package io.econexion.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.econexion.dtos.NearbyPostDTO;
+import io.econexion.dtos.PostSearchRequest;
+import io.econexion.dtos.PostSummaryDTO;
+
+public interface PostSearch {
+
+    /**
+     * Busca posts con los filtros no nulos de {@code filters} y devuelve como máximo
+     * {@code limit} resúmenes en el orden {@code sort}. Si {@code afterId} no es nulo solo
+     * devuelve los posts posteriores a ({@code afterValue}, {@code afterId}) en ese orden.
+     */
+    List<PostSummaryDTO> search(PostSearchRequest filters, PostSort sort, Double afterValue, UUID afterId, int limit);
+
+    /**
+     * Posts cuya celda de {@code GeoGrid} cae en alguno de los rangos
+     * [desde, hasta], opcionalmente filtrados por material. La distancia no se calcula aquí.
+     */
+    List<NearbyPostDTO> findInCellRanges(List<long[]> cellRanges, String material);
+}
@@ -0,0 +1,124 @@
+package io.econexion.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.query.NativeQuery;
+
+import io.econexion.dtos.NearbyPostDTO;
+import io.econexion.dtos.PostSearchRequest;
+import io.econexion.dtos.PostSummaryDTO;
+import io.econexion.model.Post;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Búsqueda de posts con Criteria API. Selecciona directamente las columnas de
+ * {@link PostSummaryDTO} (sin cargar ofertas ni dueño) y pagina por cursor sobre
+ * (campo de orden, id), de modo que cada página cuesta lo mismo sin importar su posición.
+ * Los índices de {@code publications} cubren los filtros por material y ubicación
+ * combinados con cada orden.
+ */
+public class PostSearchImpl implements PostSearch {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PostSummaryDTO> search(PostSearchRequest filters, PostSort sort, Double afterValue, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PostSummaryDTO> query = cb.createQuery(PostSummaryDTO.class);
+        Root<Post> post = query.from(Post.class);
+        query.select(cb.construct(PostSummaryDTO.class,
+                post.get("id"), post.get("title"), post.get("material"), post.get("quantity"),
+                post.get("price"), post.get("location"), post.get("owner").get("id"),
+                post.get("offerCount"), post.get("pendingOfferCount"), post.get("offerAmountSum"), post.get("bestOfferAmount")));
+
+        List<Predicate> where = new ArrayList<>();
+        if (filters.getMaterial() != null) {
+            where.add(cb.equal(post.get("material"), filters.getMaterial()));
+        }
+        if (filters.getLocation() != null) {
+            where.add(cb.equal(post.get("location"), filters.getLocation()));
+        }
+        addRange(cb, where, post.get("price"), filters.getMinPrice(), filters.getMaxPrice());
+        addRange(cb, where, post.get("quantity"), filters.getMinQuantity(), filters.getMaxQuantity());
+
+        Path<Double> sortPath = post.get(sort.getField());
+        Path<UUID> idPath = post.get("id");
+        if (afterId != null) {
+            if (sort.isAscending()) {
+                where.add(cb.or(cb.greaterThan(sortPath, afterValue),
+                        cb.and(cb.equal(sortPath, afterValue), cb.greaterThan(idPath, afterId))));
+            } else {
+                where.add(cb.or(cb.lessThan(sortPath, afterValue),
+                        cb.and(cb.equal(sortPath, afterValue), cb.lessThan(idPath, afterId))));
+            }
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(sort.isAscending()
+                ? List.of(cb.asc(sortPath), cb.asc(idPath))
+                : List.of(cb.desc(sortPath), cb.desc(idPath)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Consulta nativa con un {@code union all} por rango: H2 no usa índices con un OR de
+     * rangos, pero sí en cada rama por separado, y PostgreSQL planifica igual de bien ambas formas.
+     */
+    @Override
+    public List<NearbyPostDTO> findInCellRanges(List<long[]> cellRanges, String material) {
+        if (cellRanges.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        for (long[] range : cellRanges) {
+            if (!params.isEmpty()) {
+                sql.append(" union all ");
+            }
+            sql.append("select id, title, material, quantity, price, location, user_id, latitude, longitude, " +
+                    "offer_count, pending_offer_count, offer_amount_sum, best_offer_amount " +
+                    "from publications where geo_cell between ? and ?");
+            params.add(range[0]);
+            params.add(range[1]);
+            if (material != null) {
+                sql.append(" and material = ?");
+                params.add(material);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        query.addScalar("id", UUID.class).addScalar("title", String.class).addScalar("material", String.class)
+                .addScalar("quantity", Double.class).addScalar("price", Double.class).addScalar("location", String.class)
+                .addScalar("user_id", UUID.class).addScalar("latitude", Double.class).addScalar("longitude", Double.class)
+                .addScalar("offer_count", Long.class).addScalar("pending_offer_count", Long.class)
+                .addScalar("offer_amount_sum", Double.class).addScalar("best_offer_amount", Double.class);
+        for (int i = 0; i < params.size(); i++) {
+            query.setParameter(i + 1, params.get(i));
+        }
+        List<NearbyPostDTO> result = new ArrayList<>();
+        for (Object[] c : query.getResultList()) {
+            result.add(new NearbyPostDTO((UUID) c[0], (String) c[1], (String) c[2], (Double) c[3], (Double) c[4],
+                    (String) c[5], (UUID) c[6], (Double) c[7], (Double) c[8],
+                    (Long) c[9], (Long) c[10], (Double) c[11], (Double) c[12]));
+        }
+        return result;
+    }
+
+    private static void addRange(CriteriaBuilder cb, List<Predicate> where, Path<Double> path, Double min, Double max) {
+        if (min != null) {
+            where.add(cb.greaterThanOrEqualTo(path, min));
+        }
+        if (max != null) {
+            where.add(cb.lessThanOrEqualTo(path, max));
+        }
+    }
+}
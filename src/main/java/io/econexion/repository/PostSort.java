@@ -0,0 +1,45 @@
+package io.econexion.repository;
+
+/**
+ * Órdenes admitidos por la búsqueda de posts. Todos desempatan por id para que la
+ * paginación por cursor sea estable.
+ */
+public enum PostSort {
+    PRICE_ASC("price", true),
+    PRICE_DESC("price", false),
+    QUANTITY_ASC("quantity", true),
+    QUANTITY_DESC("quantity", false);
+
+    private final String field;
+    private final boolean ascending;
+
+    PostSort(String field, boolean ascending) {
+        this.field = field;
+        this.ascending = ascending;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Interpreta el parámetro {@code sort}: price, -price, quantity o -quantity.
+     * Sin valor ordena por precio ascendente.
+     */
+    public static PostSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return PRICE_ASC;
+        }
+        return switch (value.trim()) {
+            case "price" -> PRICE_ASC;
+            case "-price" -> PRICE_DESC;
+            case "quantity" -> QUANTITY_ASC;
+            case "-quantity" -> QUANTITY_DESC;
+            default -> throw new IllegalArgumentException("Invalid sort: " + value);
+        };
+    }
+}
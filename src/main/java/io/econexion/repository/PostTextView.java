@@ -0,0 +1,14 @@
+package io.econexion.repository;
+
+import java.util.UUID;
+
+/**
+ * Proyección con los campos de texto de un post, para construir el índice de búsqueda.
+ */
+public interface PostTextView {
+    UUID getId();
+
+    String getTitle();
+
+    String getDescription();
+}
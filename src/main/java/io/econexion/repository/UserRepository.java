@@ -1,10 +1,18 @@
 package io.econexion.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import io.econexion.dtos.UserSummaryDTO;
 import io.econexion.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +20,20 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
+    // Listados por keyset sobre email, que es único y ya tiene índice
+
+    @Query("select new io.econexion.dtos.UserSummaryDTO(u.id, u.enterpriseName, u.username, u.nit, u.email, u.role) " +
+           "from User u order by u.email")
+    List<UserSummaryDTO> findSummaries(Limit limit);
+
+    @Query("select new io.econexion.dtos.UserSummaryDTO(u.id, u.enterpriseName, u.username, u.nit, u.email, u.role) " +
+           "from User u where u.email > :email order by u.email")
+    List<UserSummaryDTO> findSummariesAfter(String email, Limit limit);
+
+    // Con fetch size y dentro de una transacción, PostgreSQL lee con cursor en lugar de cargar todo
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new io.econexion.dtos.UserSummaryDTO(u.id, u.enterpriseName, u.username, u.nit, u.email, u.role) " +
+           "from User u order by u.email")
+    Stream<UserSummaryDTO> streamSummaries();
+
 }
@@ -0,0 +1,81 @@
+package io.econexion.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rejilla fija de celdas de {@value #CELL_DEGREES}° (unos 11 km de alto) para indexar
+ * coordenadas en la base de datos con un índice B-tree normal, igual en H2 y PostgreSQL.
+ * <p>
+ * La celda es {@code fila * COLUMNS + columna}, así que las celdas de una misma fila son
+ * consecutivas y un rectángulo se consulta con un {@code between} por fila.
+ */
+public final class GeoGrid {
+
+    public static final double CELL_DEGREES = 0.1;
+    static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+    static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private GeoGrid() {
+    }
+
+    public static long cellOf(double latitude, double longitude) {
+        return (long) row(latitude) * COLUMNS + column(longitude);
+    }
+
+    /**
+     * Rangos [desde, hasta] de celdas que cubren el rectángulo que contiene el círculo de
+     * {@code radiusKm} alrededor del punto. Un rango por fila, dos si cruza el antimeridiano.
+     */
+    public static List<long[]> cellRanges(double latitude, double longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        int fromRow = row(Math.max(-90, latitude - latDelta));
+        int toRow = row(Math.min(90, latitude + latDelta));
+        // El ancho en grados crece con la latitud; se usa el borde más cercano al polo
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + latDelta);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        double lonDelta = cos < 1e-6 ? 180 : radiusKm / (KM_PER_DEGREE * cos);
+
+        List<long[]> ranges = new ArrayList<>();
+        for (int row = fromRow; row <= toRow; row++) {
+            long base = (long) row * COLUMNS;
+            if (lonDelta >= 180) {
+                ranges.add(new long[]{base, base + COLUMNS - 1});
+                continue;
+            }
+            double west = longitude - lonDelta;
+            double east = longitude + lonDelta;
+            if (west < -180) {
+                ranges.add(new long[]{base, base + column(east)});
+                ranges.add(new long[]{base + column(west + 360), base + COLUMNS - 1});
+            } else if (east >= 180) {
+                ranges.add(new long[]{base + column(west), base + COLUMNS - 1});
+                ranges.add(new long[]{base, base + column(east - 360)});
+            } else {
+                ranges.add(new long[]{base + column(west), base + column(east)});
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Distancia de círculo máximo (haversine) en kilómetros.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+    }
+}
@@ -0,0 +1,208 @@
+package io.econexion.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.econexion.model.Post;
+import io.econexion.repository.PostRepository;
+import io.econexion.repository.PostTextView;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Índice de texto sobre título y descripción de los posts.
+ * <p>
+ * Se construye al arrancar leyendo solo (id, título, descripción) en streaming, en un hilo
+ * aparte para no retrasar el arranque. Mientras tanto {@link #isReady()} es {@code false} y
+ * los cambios que llegan se encolan y se aplican al terminar, así que no se pierde ninguno.
+ * Después {@code PostService} lo mantiene al día en cada alta, modificación y borrado.
+ * <p>
+ * La cola tiene un máximo ({@code econexion.search.text-index.max-pending}): si se llena, se
+ * vacía y la reconstrucción vuelve a empezar al terminar. Si la lectura falla, la cola también
+ * se vacía y el arranque lo reintenta con espera creciente; hasta entonces las búsquedas usan
+ * el LIKE de {@code PostService}.
+ */
+@Component
+public class PostTextIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PostTextIndex.class);
+    private static final long FIRST_RETRY_MS = 1_000;
+    private static final long MAX_RETRY_MS = 300_000;
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPending;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("post-text-index-rebuild").daemon().factory());
+
+    private TextIndex index = new TextIndex();
+    // Protegidos por el lock de escritura. Se encola desde el arranque hasta la primera reconstrucción
+    private final List<Runnable> pendingDuringRebuild = new ArrayList<>();
+    private boolean rebuilding = true;
+    private boolean overflowed;
+    private volatile boolean ready;
+
+    public PostTextIndex(PostRepository postRepository, PlatformTransactionManager transactionManager,
+                         @Value("${econexion.search.text-index.max-pending:100000}") int maxPending) {
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPending = maxPending;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        rebuilder.execute(() -> rebuildWithRetry(FIRST_RETRY_MS));
+    }
+
+    private void rebuildWithRetry(long delayMs) {
+        if (!rebuild()) {
+            log.warn("Retrying post text index build in {} ms", delayMs);
+            rebuilder.schedule(() -> rebuildWithRetry(Math.min(delayMs * 2, MAX_RETRY_MS)), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reconstruye el índice completo desde la base de datos y lo sustituye de una vez. Los
+     * cambios que llegan mientras tanto se aplican también al índice nuevo antes de publicarlo.
+     *
+     * @return {@code false} si no se pudo leer la base de datos; el índice anterior sigue en uso
+     */
+    public boolean rebuild() {
+        while (true) {
+            long start = System.nanoTime();
+            startQueueing();
+            TextIndex fresh = new TextIndex();
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<PostTextView> rows = postRepository.streamAllText()) {
+                        rows.forEach(r -> fresh.add(r.getId(), r.getTitle(), r.getDescription()));
+                    }
+                });
+            } catch (RuntimeException e) {
+                stopQueueing();
+                log.error("Could not build post text index{}", ready ? "" : ", search stays on SQL fallback", e);
+                return false;
+            }
+            lock.writeLock().lock();
+            try {
+                if (!overflowed) {
+                    index = fresh;
+                    pendingDuringRebuild.forEach(Runnable::run);
+                    pendingDuringRebuild.clear();
+                    rebuilding = false;
+                    ready = true;
+                    log.info("Post text index built: {} posts, {} KB of postings in {} ms", fresh.size(),
+                            fresh.postingBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+                    return true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // A este índice le faltan los cambios descartados: se lee otra vez
+            log.warn("More than {} post changes arrived while building the text index, building it again", maxPending);
+        }
+    }
+
+    private void startQueueing() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.clear();
+            rebuilding = true;
+            overflowed = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void stopQueueing() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.clear();
+            rebuilding = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexa o reindexa un post ya guardado.
+     */
+    public void index(Post post) {
+        index(post.getId(), post.getTitle(), post.getDescription());
+    }
+
+    public void index(UUID postId, String title, String description) {
+        write(() -> index.add(postId, title, description));
+    }
+
+    public void remove(UUID postId) {
+        write(() -> index.remove(postId));
+    }
+
+    /**
+     * Ids de los posts más relevantes para {@code query}, de mayor a menor relevancia.
+     * Si el índice aún no está listo devuelve una lista vacía; consultar {@link #isReady()}.
+     */
+    public List<UUID> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return ready ? index.search(query, limit) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int pendingChanges() {
+        lock.readLock().lock();
+        try {
+            return pendingDuringRebuild.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                change.run();
+            }
+            // Durante una reconstrucción se guarda también para el índice nuevo; sin ella se descarta
+            if (rebuilding && !overflowed) {
+                if (pendingDuringRebuild.size() < maxPending) {
+                    pendingDuringRebuild.add(change);
+                } else {
+                    pendingDuringRebuild.clear();
+                    overflowed = true;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
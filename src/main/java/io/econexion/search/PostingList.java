@@ -0,0 +1,123 @@
+package io.econexion.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de apariciones de un término: pares (documento, frecuencia) en orden creciente de
+ * documento, guardados como deltas en varint. Los documentos nuevos siempre reciben un id
+ * mayor que los existentes, así que añadir es escribir al final.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[8];
+    private int size;
+    private int count;
+    // Documentos de la lista que no están borrados: el df que usa el ranking
+    private int live;
+    private int lastDoc = -1;
+
+    void add(int doc, int frequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Postings must be added in document order");
+        }
+        ensureCapacity(10);
+        writeVarint(doc - lastDoc);
+        writeVarint(frequency);
+        lastDoc = doc;
+        count++;
+        live++;
+    }
+
+    /** Descuenta un documento borrado; sus bytes siguen en la lista hasta {@link #compact}. */
+    void removeLive() {
+        live--;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int liveCount() {
+        return live;
+    }
+
+    /**
+     * Reescribe la lista con los documentos renumerados según {@code remap} y sin los que
+     * valen -1. Reescribe esta misma instancia, así que las referencias a ella siguen valiendo.
+     */
+    void compact(int[] remap) {
+        PostingList rewritten = new PostingList();
+        Cursor c = cursor();
+        while (c.next()) {
+            if (remap[c.doc()] >= 0) {
+                rewritten.add(remap[c.doc()], c.frequency());
+            }
+        }
+        data = rewritten.data;
+        size = rewritten.size;
+        count = rewritten.count;
+        live = rewritten.live;
+        lastDoc = rewritten.lastDoc;
+    }
+
+    int sizeInBytes() {
+        return size;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte) value;
+    }
+
+    /**
+     * Recorre la lista en orden. No es seguro frente a escrituras concurrentes; el índice
+     * lo usa bajo su lock de lectura.
+     */
+    final class Cursor {
+        private int pos;
+        private int doc = -1;
+        private int frequency;
+
+        boolean next() {
+            if (pos >= size) {
+                return false;
+            }
+            doc += readVarint();
+            frequency = readVarint();
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.econexion.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Convierte texto en términos para el índice: minúsculas, sin tildes ni diéresis,
+ * sin palabras vacías y con el plural reducido al singular (botellas → botella,
+ * materiales → material, cartones → carton, luces → luz). Se aplica igual al indexar y al
+ * consultar, así que basta con que singular y plural terminen en el mismo término.
+ */
+public final class SpanishAnalyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los", "o", "para",
+            "por", "que", "se", "sin", "su", "sus", "un", "una", "unas", "unos", "y");
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SpanishAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        // Texto ASCII no tiene marcas que quitar; el resto se descompone siempre, también si ya
+        // viene en NFD ("nin\u0303o"), para que la marca combinante no parta la palabra
+        String folded = isAscii(lower) ? lower
+                : MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String token = folded.substring(start, i);
+                if (!STOPWORDS.contains(token)) {
+                    terms.add(singular(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String singular(String word) {
+        int n = word.length();
+        if (n > 4 && word.endsWith("ces")) {
+            return word.substring(0, n - 3) + "z";
+        }
+        if (n > 4 && word.endsWith("es") && "lnrdj".indexOf(word.charAt(n - 3)) >= 0) {
+            return word.substring(0, n - 2);
+        }
+        if (n > 3 && word.endsWith("s") && !word.endsWith("ss") && !Character.isDigit(word.charAt(n - 2))) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+}
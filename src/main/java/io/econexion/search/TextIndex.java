@@ -0,0 +1,183 @@
+package io.econexion.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Índice invertido en memoria con ranking BM25. No es thread-safe: {@link PostTextIndex}
+ * lo protege con un lock de lectura/escritura.
+ * <p>
+ * Cada post recibe un id interno consecutivo. Borrar solo marca el id; actualizar es borrar
+ * y volver a añadir con un id nuevo. Cuando los borrados superan a la mitad de los documentos
+ * se compacta reescribiendo las listas sin ellos.
+ * <p>
+ * Cada documento guarda las listas de sus términos para descontarse del df al borrarse: el
+ * ranking usa solo documentos vivos aunque las listas aún tengan borrados sin compactar.
+ */
+final class TextIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final List<UUID> posts = new ArrayList<>();
+    private final Map<UUID, Integer> docByPost = new HashMap<>();
+    private int[] lengths = new int[64];
+    private PostingList[][] termLists = new PostingList[64][];
+    private final BitSet deleted = new BitSet();
+    private long totalLength;
+    private int deletedCount;
+
+    void add(UUID postId, String title, String description) {
+        remove(postId);
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : SpanishAnalyzer.analyze(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : SpanishAnalyzer.analyze(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int doc = posts.size();
+        int length = 0;
+        PostingList[] lists = new PostingList[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : frequencies.entrySet()) {
+            PostingList list = postings.computeIfAbsent(e.getKey(), t -> new PostingList());
+            list.add(doc, e.getValue());
+            lists[i++] = list;
+            length += e.getValue();
+        }
+        posts.add(postId);
+        docByPost.put(postId, doc);
+        if (doc == lengths.length) {
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            termLists = Arrays.copyOf(termLists, termLists.length * 2);
+        }
+        lengths[doc] = length;
+        termLists[doc] = lists;
+        totalLength += length;
+    }
+
+    void remove(UUID postId) {
+        Integer doc = docByPost.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        totalLength -= lengths[doc];
+        for (PostingList list : termLists[doc]) {
+            list.removeLive();
+        }
+        termLists[doc] = null;
+        if (deletedCount > 1000 && deletedCount > docByPost.size()) {
+            compact();
+        }
+    }
+
+    int size() {
+        return docByPost.size();
+    }
+
+    long postingBytes() {
+        return postings.values().stream().mapToLong(PostingList::sizeInBytes).sum();
+    }
+
+    /**
+     * Devuelve como máximo {@code limit} posts ordenados por relevancia BM25. Un post aparece
+     * si contiene al menos uno de los términos de la consulta.
+     */
+    List<UUID> search(String query, int limit) {
+        int live = docByPost.size();
+        if (live == 0) {
+            return List.of();
+        }
+        double avgLength = Math.max(1.0, (double) totalLength / live);
+        float[] scores = null;
+        BitSet touched = null;
+        for (String term : new LinkedHashSet<>(SpanishAnalyzer.analyze(query))) {
+            PostingList list = postings.get(term);
+            if (list == null || list.liveCount() == 0) {
+                continue;
+            }
+            if (scores == null) {
+                scores = new float[posts.size()];
+                touched = new BitSet(posts.size());
+            }
+            // df de documentos vivos: nunca supera a live, así que el idf es siempre positivo
+            int df = list.liveCount();
+            double idf = Math.log(1 + (live - df + 0.5) / (df + 0.5));
+            PostingList.Cursor c = list.cursor();
+            while (c.next()) {
+                int doc = c.doc();
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                double tf = c.frequency();
+                double norm = tf + K1 * (1 - B + B * lengths[doc] / avgLength);
+                touched.set(doc);
+                scores[doc] += (float) (idf * tf * (K1 + 1) / norm);
+            }
+        }
+        if (touched == null || touched.isEmpty()) {
+            return List.of();
+        }
+        float[] s = scores;
+        Comparator<Integer> byScore = (a, b) -> s[a] != s[b] ? Float.compare(s[a], s[b]) : Integer.compare(b, a);
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, byScore);
+        for (int doc = touched.nextSetBit(0); doc >= 0; doc = touched.nextSetBit(doc + 1)) {
+            // Solo entra al heap si supera al peor de los que ya están
+            if (top.size() < limit) {
+                top.add(doc);
+            } else if (byScore.compare(doc, top.peek()) > 0) {
+                top.poll();
+                top.add(doc);
+            }
+        }
+        UUID[] result = new UUID[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = posts.get(top.poll());
+        }
+        return Arrays.asList(result);
+    }
+
+    private void compact() {
+        int[] remap = new int[posts.size()];
+        List<UUID> livePosts = new ArrayList<>(docByPost.size());
+        int[] liveLengths = new int[Math.max(64, docByPost.size())];
+        PostingList[][] liveTermLists = new PostingList[liveLengths.length][];
+        for (int doc = 0; doc < posts.size(); doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = livePosts.size();
+                liveLengths[livePosts.size()] = lengths[doc];
+                liveTermLists[livePosts.size()] = termLists[doc];
+                livePosts.add(posts.get(doc));
+            }
+        }
+        // Se reescriben en sitio: termLists sigue apuntando a las mismas listas
+        postings.values().forEach(list -> list.compact(remap));
+        postings.values().removeIf(list -> list.count() == 0);
+        posts.clear();
+        posts.addAll(livePosts);
+        docByPost.clear();
+        for (int doc = 0; doc < posts.size(); doc++) {
+            docByPost.put(posts.get(doc), doc);
+        }
+        lengths = liveLengths;
+        termLists = liveTermLists;
+        deleted.clear();
+        deletedCount = 0;
+    }
+}
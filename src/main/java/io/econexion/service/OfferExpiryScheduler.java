@@ -0,0 +1,89 @@
+package io.econexion.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.econexion.repository.OfferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pasa a EXPIRED las ofertas pendientes cuyo {@code expiresAt} ya pasó.
+ * <p>
+ * Cada {@code econexion.offers.expiry.interval-ms} expira lotes de
+ * {@code econexion.offers.expiry.batch-size} ofertas, cada uno en su propia transacción
+ * ({@link OfferRepository#expirePending}), hasta que no queden vencidas. No guarda nada en
+ * memoria: la cola de vencimientos es el índice (status, expires_at), así que el coste de cada
+ * pasada depende de cuántas ofertas vencen y no de cuántas hay pendientes, y varios nodos
+ * pueden expirar a la vez. Con {@code interval-ms = 0} no se arranca.
+ */
+@Component
+public class OfferExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OfferExpiryScheduler.class);
+
+    private final OfferRepository offerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter expired;
+    private final ScheduledExecutorService scheduler;
+
+    public OfferExpiryScheduler(OfferRepository offerRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${econexion.offers.expiry.interval-ms:60000}") long intervalMs,
+                                @Value("${econexion.offers.expiry.batch-size:1000}") int batchSize) {
+        this.offerRepository = offerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("econexion.offers.expired")
+                .description("Ofertas pendientes pasadas a EXPIRED")
+                .register(meterRegistry);
+        if (intervalMs > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("offer-expiry").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::expireDue, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Expira todo lo vencido hasta ahora. Devuelve cuántas ofertas expiró.
+     */
+    public int expireDue() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            int n;
+            do {
+                n = transactionTemplate.execute(status -> offerRepository.expirePending(now, batchSize));
+                total += n;
+                expired.increment(n);
+            } while (n == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not expire pending offers, will retry", e);
+        }
+        if (total > 0) {
+            log.debug("Expired {} pending offers", total);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
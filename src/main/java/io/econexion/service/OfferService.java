@@ -1,34 +1,214 @@
 package io.econexion.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
 
 import io.econexion.dtos.CreateOfferDTO;
+import io.econexion.dtos.OfferDetailDTO;
+import io.econexion.dtos.OfferStatusDTO;
+import io.econexion.dtos.OfferSummaryDTO;
 import io.econexion.model.Offer;
+import io.econexion.model.OfferStatus;
 import io.econexion.repository.OfferRepository;
+import io.econexion.repository.OfferRepository.OfferState;
+import io.econexion.repository.PostRepository;
 
 @Service
+@Timed("econexion.service")
 public class OfferService {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private OfferRepository offerRepository;
+    private PostRepository postRepository;
+    private long ttlHours;
 
-    public OfferService(OfferRepository offerRepository) {
+    public OfferService(OfferRepository offerRepository, PostRepository postRepository,
+            @Value("${econexion.offers.ttl-hours:168}") long ttlHours) {
         this.offerRepository = offerRepository;
+        this.postRepository = postRepository;
+        this.ttlHours = ttlHours;
     }
 
+    /**
+     * Crea o actualiza una oferta y ajusta los agregados de su post (ver {@code Post.offerCount})
+     * en la misma transacción: si ya existía se resta su versión anterior y se suma la nueva.
+     * Las nuevas sin {@code expiresAt} vencen a las {@code econexion.offers.ttl-hours} (0: nunca).
+     * Lanza {@link IllegalArgumentException} si la cantidad no es nula ni un número positivo.
+     */
+    @Transactional
     public Offer createOffer(Offer ofer) {
+        checkQuantity(ofer.getQuantity());
+        if (ofer.getId() == null && ofer.getExpiresAt() == null && ttlHours > 0) {
+            LocalDateTime created = ofer.getDate() != null ? ofer.getDate() : LocalDateTime.now();
+            ofer.setExpiresAt(created.plusHours(ttlHours));
+        }
+        Optional<OfferState> previous = ofer.getId() == null
+                ? Optional.empty()
+                : offerRepository.findStateById(ofer.getId());
+        Offer saved = offerRepository.saveAndFlush(ofer);
+        previous.ifPresent(p -> removeFromStats(p.getPostId(), p.getAmount(), p.getStatus()));
+        postRepository.addOffer(saved.getPublication().getId(), saved.getAmount(), pending(saved.getStatus()));
+        return saved;
+    }
 
-        return offerRepository.save(ofer);
-        
+    /**
+     * Actualiza importe, mensaje y cantidad (si viene) de una oferta. El estado no se toca aquí,
+     * solo con {@link #changeStatus}. Si {@code changes} trae versión y no es la actual, o si otra
+     * petición escribe la oferta antes del flush, lanza {@link OptimisticLockingFailureException}.
+     * La cantidad de una oferta ya aceptada tiene su reserva hecha y no se puede cambiar
+     * ({@link IllegalStateException}); si no es un número positivo, {@link IllegalArgumentException}.
+     */
+    @Transactional
+    public Optional<OfferDetailDTO> updateOffer(Offer changes) {
+        checkQuantity(changes.getQuantity());
+        Offer offer = offerRepository.findById(changes.getId()).orElse(null);
+        if (offer == null) {
+            return Optional.empty();
+        }
+        if (changes.getVersion() != null && !changes.getVersion().equals(offer.getVersion())) {
+            throw new OptimisticLockingFailureException("La oferta cambió desde la versión " + changes.getVersion());
+        }
+        if (changes.getQuantity() != null && !changes.getQuantity().equals(offer.getQuantity())) {
+            if (offer.getStatus() != OfferStatus.PENDING) {
+                throw new IllegalStateException("La cantidad de una oferta " + offer.getStatus() + " no se puede cambiar");
+            }
+            offer.setQuantity(changes.getQuantity());
+        }
+        double previousAmount = offer.getAmount();
+        offer.setAmount(changes.getAmount());
+        offer.setMessage(changes.getMessage());
+        offerRepository.flush();
+        if (previousAmount != offer.getAmount()) {
+            UUID postId = offer.getPublication().getId();
+            long pending = pending(offer.getStatus());
+            removeFromStats(postId, previousAmount, offer.getStatus());
+            postRepository.addOffer(postId, offer.getAmount(), pending);
+        }
+        return offerRepository.findDetailById(offer.getId());
+    }
+
+    /**
+     * Transición de estado con un único UPDATE condicional ({@link OfferRepository#transition}).
+     * Si la oferta ya no está en el estado de origen, venció, o no está en {@code expectedVersion},
+     * lanza {@link OptimisticLockingFailureException} en vez de pisar el cambio de otra petición.
+     * Al aceptar se reserva la cantidad de la oferta en el post ({@link PostRepository#reserveForOffer});
+     * si no queda, lanza {@link IllegalStateException} y la transición se deshace con la transacción.
+     * Vacío si la oferta no existe.
+     */
+    @Transactional
+    public Optional<OfferStatusDTO> changeStatus(UUID id, OfferStatus target, Long expectedVersion) {
+        OfferStatus from = target == null ? null : OfferStatus.sourceOf(target);
+        if (from == null || target == OfferStatus.EXPIRED) {
+            // EXPIRED solo lo pone OfferExpiryScheduler
+            throw new IllegalArgumentException("Estado destino no válido: " + target);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (offerRepository.transition(id, from, target, expectedVersion, now) == 1) {
+            if (!applyToPost(id, from, target)) {
+                throw new IllegalStateException("No queda cantidad suficiente en la publicación para aceptar la oferta");
+            }
+            Long version = expectedVersion == null ? null : expectedVersion + 1;
+            return Optional.of(new OfferStatusDTO(id, target, version));
+        }
+        // No se aplicó: solo aquí se lee la fila, para distinguir 404 de 409
+        Optional<OfferState> current = offerRepository.findStateById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        OfferState state = current.get();
+        if (state.getStatus() != from) {
+            throw new OptimisticLockingFailureException(
+                    "La oferta está " + state.getStatus() + " y no puede pasar a " + target);
+        }
+        if (state.getExpiresAt() != null && !state.getExpiresAt().isAfter(now)) {
+            throw new OptimisticLockingFailureException("La oferta venció el " + state.getExpiresAt());
+        }
+        throw new OptimisticLockingFailureException(
+                "La oferta está en la versión " + state.getVersion() + ", no en la " + expectedVersion);
+    }
+
+    /**
+     * Refleja la transición en el post: pendientes y, si se acepta, la reserva de cantidad.
+     * {@code false} si no queda cantidad para la reserva.
+     */
+    private boolean applyToPost(UUID offerId, OfferStatus from, OfferStatus target) {
+        long delta = pending(target) - pending(from);
+        if (target == OfferStatus.ACCEPTED) {
+            return postRepository.reserveForOffer(offerId, delta) == 1;
+        }
+        if (delta != 0) {
+            postRepository.adjustPendingOffers(offerId, delta);
+        }
+        return true;
     }
 
     public Offer findById(UUID id) {
         return offerRepository.findById(id).orElse(null);
     }
 
+    public Optional<OfferDetailDTO> findDetail(UUID id) {
+        return offerRepository.findDetailById(id);
+    }
+
+    /**
+     * Ofertas de un post, de la más reciente a la más antigua.
+     */
+    public List<OfferSummaryDTO> findByPost(UUID postId, Integer limit) {
+        return offerRepository.findSummariesByPostId(postId, Limit.of(pageSize(limit)));
+    }
+
+    /**
+     * Ofertas hechas por un usuario, de la más reciente a la más antigua.
+     */
+    public List<OfferSummaryDTO> findByOfferer(UUID userId, Integer limit) {
+        return offerRepository.findSummariesByOffererId(userId, Limit.of(pageSize(limit)));
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    @Transactional
     public void deleteOffer(UUID id) {
+        Optional<OfferState> previous = offerRepository.findStateById(id);
         offerRepository.deleteById(id);
-        
+        offerRepository.flush();
+        previous.ifPresent(p -> {
+            removeFromStats(p.getPostId(), p.getAmount(), p.getStatus());
+            if (p.getStatus() == OfferStatus.ACCEPTED && p.getQuantity() != null) {
+                postRepository.releaseQuantity(p.getPostId(), p.getQuantity());
+            }
+        });
+    }
+
+    private void removeFromStats(UUID postId, double amount, OfferStatus status) {
+        postRepository.removeOffer(postId, amount, pending(status));
+        postRepository.recomputeBestOffer(postId, amount);
+    }
+
+    /**
+     * Una cantidad negativa convertiría la reserva al aceptar en un aumento del lote, y NaN pasa
+     * la comprobación {@code quantity >= :q} de {@link PostRepository#reserveForOffer}.
+     */
+    private static void checkQuantity(Double quantity) {
+        if (quantity != null && !(Double.isFinite(quantity) && quantity > 0)) {
+            throw new IllegalArgumentException("La cantidad debe ser un número positivo");
+        }
+    }
+
+    private static long pending(OfferStatus status) {
+        return status == OfferStatus.PENDING ? 1 : 0;
     }
 
 
@@ -0,0 +1,51 @@
+package io.econexion.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import io.econexion.repository.PostSort;
+
+/**
+ * Cursor de la búsqueda de posts: orden, valor del campo de orden e id del último post
+ * devuelto. Incluye el orden para rechazar cursores usados con otro {@code sort}.
+ * Se serializa como base64url para que el cliente lo trate como opaco.
+ */
+final class PostCursor {
+
+    private final PostSort sort;
+    private final double value;
+    private final UUID id;
+
+    PostCursor(PostSort sort, double value, UUID id) {
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+    }
+
+    PostSort getSort() {
+        return sort;
+    }
+
+    double getValue() {
+        return value;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = sort.name() + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PostCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new PostCursor(PostSort.valueOf(parts[0]), Double.parseDouble(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
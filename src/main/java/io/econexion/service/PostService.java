@@ -1,47 +1,209 @@
 package io.econexion.service;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.econexion.dtos.NearbyPostDTO;
+import io.econexion.dtos.PostDetailDTO;
+import io.econexion.dtos.PostPageDTO;
+import io.econexion.dtos.PostSearchRequest;
+import io.econexion.dtos.PostSummaryDTO;
 import io.econexion.model.Post;
 import io.econexion.model.User;
+import io.econexion.repository.OfferRepository;
 import io.econexion.repository.PostRepository;
+import io.econexion.repository.PostSort;
+import io.econexion.search.GeoGrid;
+import io.econexion.search.PostTextIndex;
 
 @Service
+@Timed("econexion.service")
 public class PostService {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final double MAX_NEARBY_RADIUS_KM = 500;
+    static final double INITIAL_NEARBY_RADIUS_KM = 10;
+    static final int DETAIL_OFFERS = 20;
+
     @Autowired
     PostRepository postrepository;
     @Autowired
     UserService userservice;
+    @Autowired
+    PostTextIndex postTextIndex;
+    @Autowired
+    OfferRepository offerRepository;
     
     public Post savePost(Post post){ 
-        return postrepository.save(post);
+        Post saved = postrepository.save(post);
+        postTextIndex.index(saved);
+        return saved;
     }
 
     public Post findById(UUID id) throws NotFoundException {
         return postrepository.findById(id).orElseThrow(() -> new NotFoundException());    
     }
    
+    /**
+     * Detalle de un post con dueño y últimas ofertas en dos consultas, sin cargar entidades.
+     */
+    public Optional<PostDetailDTO> findDetail(UUID id) {
+        Optional<PostDetailDTO> detail = postrepository.findDetailById(id);
+        detail.ifPresent(d -> d.setLatestOffers(offerRepository.findSummariesByPostId(id, Limit.of(DETAIL_OFFERS))));
+        return detail;
+    }
+
     public ResponseEntity<?> deletePost(UUID id){
         if(!postrepository.findById(id).isPresent()){
             return ResponseEntity.notFound().build();
         }
         postrepository.deleteById(id);
+        postTextIndex.remove(id);
         return ResponseEntity.ok("post eliminado, correctamente");
     }
    
+    /**
+     * Actualiza los datos del post. La cantidad no se toca aquí (la columna no es actualizable
+     * desde la entidad): se cambia con {@link #adjustQuantity} para no pisar las reservas.
+     */
     public ResponseEntity<?> updatePost(Post post){
 
          if(!postrepository.findById(post.getId()).isPresent()){
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok().body(postrepository.save(post));
+        Post saved = postrepository.save(post);
+        postTextIndex.index(saved);
+        return ResponseEntity.ok().body(saved);
 
     }
-    
+
+    /**
+     * Suma {@code delta} a la cantidad disponible (negativo para retirar) con un UPDATE
+     * condicional, sin pisar lo que reserven a la vez las ofertas aceptadas. Devuelve la
+     * cantidad resultante, vacío si el post no existe, o lanza {@link IllegalStateException} si
+     * la cantidad quedaría negativa y {@link IllegalArgumentException} si delta no es finito.
+     */
+    @Transactional
+    public Optional<Double> adjustQuantity(UUID id, double delta) {
+        // En PostgreSQL NaN >= 0 es verdadero: llegaría al UPDATE y dejaría la cantidad en NaN
+        if (!Double.isFinite(delta)) {
+            throw new IllegalArgumentException("Invalid delta");
+        }
+        if (postrepository.adjustQuantity(id, delta) == 0) {
+            if (!postrepository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("No queda cantidad suficiente para retirar " + (-delta));
+        }
+        return postrepository.findQuantityById(id);
+    }
+
+    /**
+     * Búsqueda paginada por cursor. Lanza {@link IllegalArgumentException} si el orden o el
+     * cursor no son válidos, o si el cursor pertenece a otro orden.
+     */
+    public PostPageDTO search(PostSearchRequest request) {
+        PostSort sort = PostSort.parse(request.getSort());
+        int size = request.getLimit() == null ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(request.getLimit(), MAX_PAGE_SIZE));
+        Double afterValue = null;
+        UUID afterId = null;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            PostCursor cursor = PostCursor.decode(request.getCursor());
+            if (cursor.getSort() != sort) {
+                throw new IllegalArgumentException("Cursor does not match sort");
+            }
+            afterValue = cursor.getValue();
+            afterId = cursor.getId();
+        }
+        // Se pide uno de más para saber si hay otra página sin hacer un count
+        List<PostSummaryDTO> rows = postrepository.search(request, sort, afterValue, afterId, size + 1);
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            PostSummaryDTO last = rows.get(size - 1);
+            double value = sort == PostSort.PRICE_ASC || sort == PostSort.PRICE_DESC ? last.getPrice() : last.getQuantity();
+            next = new PostCursor(sort, value, last.getId()).encode();
+        }
+        return new PostPageDTO(rows, next);
+    }
+
+    /**
+     * Búsqueda de texto libre sobre título y descripción, ordenada por relevancia. Mientras el
+     * índice se construye al arrancar responde con un LIKE sin ranking.
+     */
+    public List<PostSummaryDTO> searchText(String query, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (!postTextIndex.isReady()) {
+            return postrepository.searchTextFallback(likePattern(query), Limit.of(size));
+        }
+        List<UUID> ids = postTextIndex.search(query, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PostSummaryDTO> byId = postrepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+        // Conserva el orden de relevancia; un post borrado entre ambas lecturas simplemente no aparece
+        return ids.stream().map(byId::get).filter(p -> p != null).toList();
+    }
+
+    /**
+     * Patrón LIKE "contiene" para {@link PostRepository#searchTextFallback}: escapa {@code \},
+     * {@code %} y {@code _} (la consulta declara {@code escape '\'}) para que se busquen como texto.
+     */
+    public static String likePattern(String query) {
+        String text = query.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + text + "%";
+    }
+
+    /**
+     * Los {@code limit} posts más cercanos al punto dentro de {@code radiusKm} (500 km si es
+     * nulo), del más cercano al más lejano. Empieza con un radio pequeño y lo duplica hasta
+     * reunir {@code limit} posts dentro del círculo o llegar al radio pedido, de modo que en
+     * zonas densas solo se leen las celdas de alrededor.
+     */
+    public List<NearbyPostDTO> nearby(double latitude, double longitude, Double radiusKm, String material, Integer limit) {
+        // NaN no cumple ninguna comparación, así que se descarta aparte junto con los infinitos
+        if (!Double.isFinite(latitude) || !Double.isFinite(longitude)
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+        double maxRadius = radiusKm == null ? MAX_NEARBY_RADIUS_KM : radiusKm;
+        if (!(maxRadius > 0) || maxRadius > MAX_NEARBY_RADIUS_KM) {
+            throw new IllegalArgumentException("radiusKm must be between 0 and " + MAX_NEARBY_RADIUS_KM);
+        }
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        double radius = Math.min(INITIAL_NEARBY_RADIUS_KM, maxRadius);
+        while (true) {
+            double r = radius;
+            List<NearbyPostDTO> found = postrepository.findInCellRanges(GeoGrid.cellRanges(latitude, longitude, r), material)
+                    .stream()
+                    .map(p -> {
+                        p.setDistanceKm(GeoGrid.distanceKm(latitude, longitude, p.getLatitude(), p.getLongitude()));
+                        return p;
+                    })
+                    .filter(p -> p.getDistanceKm() <= r)
+                    .sorted(Comparator.comparingDouble(NearbyPostDTO::getDistanceKm))
+                    .toList();
+            if (found.size() >= size || radius >= maxRadius) {
+                return found.size() > size ? found.subList(0, size) : found;
+            }
+            radius = Math.min(radius * 2, maxRadius);
+        }
+    }
 
 }
@@ -1,22 +1,66 @@
 package io.econexion.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.econexion.dtos.UserPageDTO;
+import io.econexion.dtos.UserSummaryDTO;
 import io.econexion.repository.UserRepository;
 import io.econexion.model.User;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;      // <-- import necesario
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 @Service
+@Timed("econexion.service")
  
 public class UserService {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository repository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
 
-    public UserService(UserRepository repository) throws Exception {
+    // Copias desacopladas de la sesión JPA; nunca se entregan tal cual (ver copy)
+    private final Cache<UUID, User> usersById;
+    // email -> id; se comprueba contra el usuario cacheado, así que un email cambiado no devuelve a otro
+    private final Cache<String, UUID> userIdsByEmail;
+
+    public UserService(UserRepository repository,
+                       MeterRegistry meterRegistry,
+                       @Value("${econexion.users.cache.max-size:10000}") long cacheSize,
+                       @Value("${econexion.users.cache.ttl-seconds:300}") long cacheTtlSeconds) throws Exception {
         this.repository = repository;
+        // El TTL acota cuánto tarda en verse un cambio hecho por otro nodo
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        this.userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByEmail, "users.by-email");
     }
 
     // @PostConstruct
@@ -41,12 +85,59 @@ public class UserService {
         return repository.findAll();
     }
 
+    public List<UserSummaryDTO> findAllSummaries() {
+        return repository.findSummaries(Limit.unlimited());
+    }
+
+    /**
+     * Página de usuarios ordenada por email. El cursor es el email del último usuario de la
+     * página anterior codificado en base64url.
+     */
+    public UserPageDTO listPage(String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<UserSummaryDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findSummaries(Limit.of(size + 1));
+        } else {
+            String after;
+            try {
+                after = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows = repository.findSummariesAfter(after, Limit.of(size + 1));
+        }
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            next = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(rows.get(size - 1).getEmail().getBytes(StandardCharsets.UTF_8));
+        }
+        return new UserPageDTO(rows, next);
+    }
+
+    /**
+     * Escribe todos los usuarios en {@code out} como NDJSON (un objeto por línea) leyendo
+     * con cursor, así que la memoria usada no depende del número de usuarios.
+     */
+    @Transactional(readOnly = true)
+    public void exportSummaries(OutputStream out) throws IOException {
+        try (Stream<UserSummaryDTO> users = repository.streamSummaries()) {
+            Iterator<UserSummaryDTO> it = users.iterator();
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
     public Optional<User> findById(UUID id) throws Exception {
-        if (!repository.findById(id).isPresent()) {
+        User user = cachedById(id);
+        if (user == null) {
             throw new Exception("Usuario no encontrado");
-
         }
-        return repository.findById(id);
+        return Optional.of(user);
     }
 
     public User create(User user) throws Exception {
@@ -58,26 +149,71 @@ public class UserService {
     }
 
     public Optional<User> update(UUID id, User newUser) throws Exception {
-        if (!repository.findById(id).isPresent()) {
+        if (cachedById(id) == null) {
             throw new Exception("Usuario no encontrado");
         }
         newUser.setId(id);
-        return Optional.of(repository.save(newUser));
+        User saved = repository.save(newUser);
+        evict(id);
+        return Optional.of(saved);
     }
 
     public boolean delete(UUID id) throws Exception {
-        if (!repository.findById(id).isPresent()) {
+        if (cachedById(id) == null) {
             throw new Exception("EL Id no esta registrado a ningun usuario");
         }
         repository.deleteById(id);
+        evict(id);
         return true;
     }
 
     public Optional<User> findByEmail(String email) {
-        return repository.findByEmail(email);
+        UUID id = userIdsByEmail.getIfPresent(email);
+        if (id != null) {
+            User user = cachedById(id);
+            if (user != null && email.equals(user.getEmail())) {
+                return Optional.of(user);
+            }
+            userIdsByEmail.invalidate(email);
+        }
+        Optional<User> found = repository.findByEmail(email);
+        found.ifPresent(u -> {
+            usersById.get(u.getId(), key -> copy(u));
+            userIdsByEmail.put(email, u.getId());
+        });
+        return found;
     }
 
     public User update(User user){
-        return repository.save(user);
+        User saved = repository.save(user);
+        evict(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Usuario por id desde la caché, cargándolo si no está. Devuelve una copia: quien la reciba
+     * puede modificarla sin afectar a la caché ni a otros hilos. {@code null} si no existe.
+     */
+    private User cachedById(UUID id) {
+        User user = usersById.get(id, key -> repository.findById(key).map(UserService::copy).orElse(null));
+        return user == null ? null : copy(user);
+    }
+
+    // Después de guardar, cuando el cambio ya es visible; una carga en curso del mismo id
+    // termina antes de invalidar, así que no queda cacheado el valor anterior
+    private void evict(UUID id) {
+        usersById.invalidate(id);
+    }
+
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setEnterpriseName(user.getEnterpriseName());
+        copy.setUsername(user.getUsername());
+        copy.setNit(user.getNit());
+        copy.setEmail(user.getEmail());
+        copy.setRole(user.getRole());
+        copy.setPassword(user.getPassword());
+        return copy;
     }
 }
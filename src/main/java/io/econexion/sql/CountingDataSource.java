@@ -0,0 +1,146 @@
+package io.econexion.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource que mide cada sentencia ejecutada (JPA, JdbcTemplate o JDBC directo): la suma al
+ * {@link QueryScope} abierto en el hilo y, si tarda más de {@code slowStatementMs}, la registra
+ * en el log y en el contador {@code econexion.sql.slow}.
+ * <p>
+ * Extiende {@link DelegatingDataSource} para que Boot siga encontrando el pool real
+ * (métricas y health de Hikari).
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(CountingDataSource.class);
+
+    private final long slowStatementNanos;
+    private final Counter slowStatements;
+
+    public CountingDataSource(DataSource target, long slowStatementMs, MeterRegistry registry) {
+        super(target);
+        this.slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementMs);
+        this.slowStatements = Counter.builder("econexion.sql.slow")
+                .description("SQL statements slower than econexion.queries.slow-statement-ms")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private void executed(String sql, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        QueryScope.record(sql, elapsed);
+        if (elapsed >= slowStatementNanos) {
+            slowStatements.increment();
+            log.warn("Slow SQL statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsed), SqlShapes.shapeOf(sql));
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        // Identidad del proxy, no del objeto envuelto: equals(proxy) debe ser true
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                    && Proxy.getInvocationHandler(args[0]) instanceof Wrapping w && w.target() == target;
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(target);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Wrapping extends InvocationHandler {
+        Object target();
+    }
+
+    private final class ConnectionHandler implements Wrapping {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object target() {
+            return target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = CountingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements Wrapping {
+        private final Statement target;
+        // SQL de un PreparedStatement; null en un Statement plano, que lo recibe en cada execute
+        private final String preparedSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object target() {
+            return target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return CountingDataSource.invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return CountingDataSource.invoke(target, method, args);
+            } finally {
+                executed(sql, start);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.econexion.sql;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Abre un {@link QueryScope} por petición HTTP y, al terminar:
+ * <ul>
+ *   <li>publica {@code econexion.request.statements} y {@code econexion.request.statement.time}
+ *       por URI;</li>
+ *   <li>si la petición supera {@code max-statements}, repite una misma forma de sentencia
+ *       {@code repeated-threshold} veces (N+1) o pasa más de {@code slow-request-ms} en la base de
+ *       datos, lo escribe en el log con las sentencias repetidas y cuenta
+ *       {@code econexion.request.query.alerts} por URI y tipo.</li>
+ * </ul>
+ * Con {@code debug-headers} añade {@code X-Query-Count}, {@code X-Query-Time-Ms} y
+ * {@code X-Query-Max-Repeated}. Las cabeceras se escriben al empezar el cuerpo, así que no
+ * incluyen las cargas lazy que haga la serialización JSON; el log y las métricas sí.
+ * En respuestas asíncronas (NDJSON, SSE) solo se cuenta lo ejecutado en el hilo de la petición.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final MeterRegistry registry;
+    private final int maxStatements;
+    private final int repeatedThreshold;
+    private final long slowRequestNanos;
+    private final boolean debugHeaders;
+
+    public QueryCountFilter(MeterRegistry registry, int maxStatements, int repeatedThreshold,
+                            long slowRequestMs, boolean debugHeaders) {
+        this.registry = registry;
+        this.maxStatements = maxStatements;
+        this.repeatedThreshold = repeatedThreshold;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMs);
+        this.debugHeaders = debugHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (QueryScope scope = QueryScope.open()) {
+            HttpServletResponse target = debugHeaders ? new QueryHeadersResponse(response, scope) : response;
+            chain.doFilter(request, target);
+            if (target instanceof QueryHeadersResponse headers) {
+                headers.writeHeaders();
+            }
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryScope scope) {
+        if (scope.statementCount() == 0) {
+            return;
+        }
+        String uri = uri(request);
+        DistributionSummary.builder("econexion.request.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(scope.statementCount());
+        Timer.builder("econexion.request.statement.time")
+                .description("Time spent executing SQL per HTTP request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(scope.elapsedNanos(), TimeUnit.NANOSECONDS);
+
+        List<Map.Entry<String, Integer>> repeated = scope.repeatedShapes(repeatedThreshold);
+        boolean tooMany = scope.statementCount() > maxStatements;
+        boolean slow = scope.elapsedNanos() > slowRequestNanos;
+        if (repeated.isEmpty() && !tooMany && !slow) {
+            return;
+        }
+        if (!repeated.isEmpty()) {
+            alert(uri, "repeated");
+        }
+        if (tooMany) {
+            alert(uri, "too_many");
+        }
+        if (slow) {
+            alert(uri, "slow");
+        }
+        log.warn("{} {} executed {} SQL statements in {} ms{}", request.getMethod(), uri, scope.statementCount(),
+                TimeUnit.NANOSECONDS.toMillis(scope.elapsedNanos()),
+                repeated.isEmpty() ? "" : "; repeated (N+1?):" + scope.describe(repeatedThreshold));
+    }
+
+    private void alert(String uri, String type) {
+        Counter.builder("econexion.request.query.alerts")
+                .description("HTTP requests over the SQL statement thresholds")
+                .tag("uri", uri)
+                .tag("type", type)
+                .register(registry)
+                .increment();
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    /**
+     * Escribe las cabeceras de depuración justo antes de que se confirme la respuesta.
+     */
+    private static final class QueryHeadersResponse extends HttpServletResponseWrapper {
+        private final QueryScope scope;
+        private boolean written;
+
+        private QueryHeadersResponse(HttpServletResponse response, QueryScope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        private void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader("X-Query-Count", Integer.toString(scope.statementCount()));
+            setHeader("X-Query-Time-Ms", Long.toString(TimeUnit.NANOSECONDS.toMillis(scope.elapsedNanos())));
+            setHeader("X-Query-Max-Repeated", Integer.toString(scope.maxRepetitions()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.econexion.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sentencias SQL ejecutadas en el hilo actual mientras el ámbito está abierto, contadas por
+ * {@link CountingDataSource}. {@link QueryCountFilter} abre uno por petición HTTP; los tests
+ * pueden abrir el suyo para fijar cuántas consultas hace una operación:
+ * <pre>
+ * try (QueryScope queries = QueryScope.open()) {
+ *     mockMvc.perform(get("/posts/all"));
+ *     queries.assertStatementsAtMost(2).assertNoRepeatedShapes(3);
+ * }
+ * </pre>
+ * Los ámbitos se anidan: una sentencia cuenta en el ámbito actual y en todos los que lo contienen.
+ * Solo ve las sentencias del hilo que lo abrió (MockMvc o llamadas directas a servicios; con un
+ * servidor real, usar las cabeceras de {@code econexion.queries.debug-headers}).
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final QueryScope parent;
+    private int statements;
+    private long nanos;
+    // forma normalizada de la sentencia -> veces ejecutada
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private QueryScope(QueryScope parent) {
+        this.parent = parent;
+    }
+
+    public static QueryScope open() {
+        QueryScope scope = new QueryScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(String sql, long elapsedNanos) {
+        QueryScope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        String shape = SqlShapes.shapeOf(sql);
+        for (; scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.nanos += elapsedNanos;
+            scope.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    public int statementCount() {
+        return statements;
+    }
+
+    public long elapsedNanos() {
+        return nanos;
+    }
+
+    /**
+     * Veces que se ejecutó la forma de sentencia más repetida.
+     */
+    public int maxRepetitions() {
+        int max = 0;
+        for (int count : shapes.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * Formas de sentencia ejecutadas al menos {@code threshold} veces, de la más repetida a la
+     * menos. Una misma consulta con distintos parámetros muchas veces en una petición suele ser
+     * un N+1.
+     */
+    public List<Map.Entry<String, Integer>> repeatedShapes(int threshold) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : shapes.entrySet()) {
+            if (e.getValue() >= threshold) {
+                repeated.add(Map.entry(e.getKey(), e.getValue()));
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return repeated;
+    }
+
+    public QueryScope assertStatementsAtMost(int max) {
+        if (statements > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + statements
+                    + " were executed:" + describe(1));
+        }
+        return this;
+    }
+
+    /**
+     * Falla si alguna forma de sentencia se ejecutó {@code threshold} veces o más.
+     */
+    public QueryScope assertNoRepeatedShapes(int threshold) {
+        if (!repeatedShapes(threshold).isEmpty()) {
+            throw new AssertionError("SQL statements repeated " + threshold + " or more times (N+1?):"
+                    + describe(threshold));
+        }
+        return this;
+    }
+
+    String describe(int threshold) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Integer> e : repeatedShapes(threshold)) {
+            sb.append("\n  ").append(e.getValue()).append("x ").append(e.getKey());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Deja activo el ámbito que contenía a este. Si quedó abierto un ámbito anidado (se olvidó
+     * cerrarlo), se descarta también; cerrar un ámbito ya cerrado no hace nada.
+     */
+    @Override
+    public void close() {
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.econexion.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduce una sentencia SQL a su forma: literales y parámetros como {@code ?}, listas
+ * {@code IN (?, ?, ...)} como {@code (?)} y espacios colapsados. Dos sentencias con la misma
+ * forma son la misma consulta con otros valores.
+ */
+final class SqlShapes {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlShapes() {
+    }
+
+    static String shapeOf(String sql) {
+        if (sql == null) {
+            return "?";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
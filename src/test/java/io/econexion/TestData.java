@@ -0,0 +1,89 @@
+package io.econexion;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import io.econexion.model.Offer;
+import io.econexion.model.Post;
+import io.econexion.model.User;
+import io.econexion.repository.PostRepository;
+import io.econexion.repository.UserRepository;
+import io.econexion.service.OfferService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Datos de prueba creados con los repositorios y servicios de la aplicación, no con INSERT a
+ * mano: los tests no repiten las columnas de cada tabla y los agregados que mantiene
+ * {@link OfferService} (ofertas y pendientes por post) quedan como en producción.
+ * <p>
+ * Los posts se guardan con el repositorio y no con {@code PostService}: el índice de texto está
+ * en memoria y no se deshace con el rollback de la transacción del test.
+ */
+@Component
+public class TestData {
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final OfferService offerService;
+    private final EntityManager entityManager;
+
+    public TestData(UserRepository userRepository, PostRepository postRepository, OfferService offerService,
+                    EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.offerService = offerService;
+        this.entityManager = entityManager;
+    }
+
+    public User user(String role) {
+        UUID id = UUID.randomUUID();
+        return userRepository.save(new User(id + "@econexion.test", role.toLowerCase(), role));
+    }
+
+    /** Post de PET en Bogotá con 10 unidades; {@code with} cambia lo que el test necesite. */
+    public Post post(User owner, String title, Consumer<Post> with) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setMaterial("PET");
+        post.setQuantity(10);
+        post.setPrice(850.5);
+        post.setLocation("Bogotá");
+        post.setOwner(owner);
+        with.accept(post);
+        return postRepository.save(post);
+    }
+
+    public Post post(User owner, String title) {
+        return post(owner, title, p -> {
+        });
+    }
+
+    /** Oferta pendiente creada con {@link OfferService#createOffer}, que ajusta los agregados del post. */
+    public Offer offer(Post post, User offerer, double amount, Consumer<Offer> with) {
+        Offer offer = new Offer();
+        offer.setAmount(amount);
+        offer.setMessage("Me interesa el lote");
+        offer.setDate(LocalDateTime.now());
+        offer.setPublication(post);
+        offer.setOfferer(offerer);
+        with.accept(offer);
+        return offerService.createOffer(offer);
+    }
+
+    public Offer offer(Post post, User offerer, double amount) {
+        return offer(post, offerer, amount, o -> {
+        });
+    }
+
+    /**
+     * Escribe lo pendiente y vacía el contexto de persistencia: lo que el test lea después sale de
+     * la base de datos, como en una petición real, y no de las entidades recién creadas.
+     */
+    public void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
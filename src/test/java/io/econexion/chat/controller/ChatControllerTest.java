@@ -0,0 +1,72 @@
+package io.econexion.chat.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.econexion.chat.ChatMessage;
+import io.econexion.chat.service.ChatService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ChatControllerTest {
+
+    private static final String TOO_LONG = "a".repeat(ChatMessage.MAX_TEXT_LENGTH + 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChatService chatService;
+
+    private Long conversationId;
+
+    @BeforeEach
+    void seed() {
+        conversationId = chatService.getOrCreateConversation(1L, 2L, 3L);
+    }
+
+    @Test
+    void batchWithAnOverlongTextIsABadRequest() throws Exception {
+        send("/messages/batch", Map.of("senderId", 2, "texts", List.of("Hola", TOO_LONG)))
+                .andExpect(status().isBadRequest());
+        send("/messages", Map.of("senderId", 2, "text", TOO_LONG))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/chat/conversations/{id}/messages", conversationId))
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void textsUpToTheColumnLengthAreStored() throws Exception {
+        send("/messages/batch", Map.of("senderId", 2, "texts", List.of("Hola", "a".repeat(ChatMessage.MAX_TEXT_LENGTH))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    private ResultActions send(String path, Map<String, Object> body) throws Exception {
+        return mockMvc.perform(post("/api/chat/conversations/{id}" + path, conversationId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+}
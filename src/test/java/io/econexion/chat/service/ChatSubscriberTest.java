@@ -0,0 +1,94 @@
+package io.econexion.chat.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ChatSubscriberTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<DataWithMediaType> frame = SseEmitter.event().comment("ping").build();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Como SseEmitter: send y complete comparten el monitor, y send se queda bloqueado como con
+     * un cliente que no lee.
+     */
+    static class StuckEmitter extends SseEmitter {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+
+    @Test
+    void closeDoesNotWaitForABlockedSend() throws Exception {
+        StuckEmitter emitter = new StuckEmitter();
+        ChatSubscriber subscriber = new ChatSubscriber(1L, emitter, 4);
+        assertThat(subscriber.offer(frame, executor)).isTrue();
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), subscriber::close);
+        assertThat(subscriber.offer(frame, executor)).isFalse();
+        assertThat(emitter.completed.getCount()).isEqualTo(1);
+
+        // Cuando el envío termina, el drenado completa el emitter
+        emitter.release.countDown();
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void closeWithoutPendingSendsCompletesRightAway() {
+        StuckEmitter emitter = new StuckEmitter();
+        ChatSubscriber subscriber = new ChatSubscriber(1L, emitter, 4);
+
+        subscriber.close();
+        subscriber.close();
+
+        assertThat(emitter.completed.getCount()).isZero();
+        assertThat(emitter.sending.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullBufferRefusesFrames() throws Exception {
+        StuckEmitter emitter = new StuckEmitter();
+        ChatSubscriber subscriber = new ChatSubscriber(1L, emitter, 2);
+        subscriber.offer(frame, executor);
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(subscriber.offer(frame, executor)).isTrue();
+        assertThat(subscriber.offer(frame, executor)).isTrue();
+        assertThat(subscriber.offer(frame, executor)).isFalse();
+        emitter.release.countDown();
+    }
+}
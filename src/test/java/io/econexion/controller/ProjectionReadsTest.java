@@ -0,0 +1,118 @@
+package io.econexion.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.econexion.TestData;
+import io.econexion.model.Post;
+import io.econexion.model.User;
+import io.econexion.sql.QueryScope;
+
+/**
+ * Las lecturas de posts y ofertas salen de proyecciones: un número fijo de consultas sin importar
+ * cuántas ofertas tenga el post, y un cuerpo acotado (antes la serialización de entidades
+ * arrastraba ofertas, conversaciones y mensajes: ~100 KB por post).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ProjectionReadsTest {
+
+    private static final int OFFERS = 31;
+    // Una oferta resumida ocupa ~320 bytes; el post sin ofertas, ~400
+    private static final int MAX_OFFER_BYTES = 400;
+    private static final int MAX_POST_BYTES = 1_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    private UUID buyer;
+    private UUID postId;
+    private UUID offerId;
+
+    @BeforeEach
+    void seed() {
+        User offerer = testData.user("BUYER");
+        buyer = offerer.getId();
+        Post post = testData.post(testData.user("SELLER"), "Botellas PET compactadas", p -> {
+            p.setQuantity(500);
+            p.setDescription("Pacas de 50 kg, limpias");
+        });
+        postId = post.getId();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < OFFERS; i++) {
+            LocalDateTime date = now.minusSeconds(i);
+            offerId = testData.offer(post, offerer, 800 + i, o -> {
+                o.setQuantity(10.0);
+                o.setMessage("Me interesa el lote completo, recojo en bodega");
+                o.setDate(date);
+            }).getId();
+        }
+        testData.flush();
+    }
+
+    @Test
+    void postDetail() throws Exception {
+        String body = read(2, get("/posts/{id}", postId))
+                .andExpect(jsonPath("$.id").value(postId.toString()))
+                .andExpect(jsonPath("$.latestOffers.length()").value(20))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.length()).isLessThan(MAX_POST_BYTES + 20 * MAX_OFFER_BYTES);
+    }
+
+    @Test
+    void postOffers() throws Exception {
+        String body = read(1, get("/posts/{id}/offers", postId))
+                .andExpect(jsonPath("$.length()").value(OFFERS))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.length()).isLessThan(OFFERS * MAX_OFFER_BYTES);
+    }
+
+    @Test
+    void offerDetail() throws Exception {
+        String body = read(1, get("/offers/{id}", offerId))
+                .andExpect(jsonPath("$.id").value(offerId.toString()))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.length()).isLessThan(MAX_POST_BYTES);
+    }
+
+    @Test
+    void offersByUser() throws Exception {
+        String body = read(1, get("/offers").param("userId", buyer.toString()).param("limit", "10"))
+                .andExpect(jsonPath("$.length()").value(10))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.length()).isLessThan(10 * MAX_OFFER_BYTES);
+    }
+
+    @Test
+    void missingIdsAreNotFound() throws Exception {
+        read(2, get("/posts/{id}", UUID.randomUUID())).andExpect(status().isNotFound());
+        read(1, get("/offers/{id}", UUID.randomUUID())).andExpect(status().isNotFound());
+    }
+
+    private ResultActions read(int maxStatements, RequestBuilder request) throws Exception {
+        try (QueryScope queries = QueryScope.open()) {
+            ResultActions result = mockMvc.perform(request);
+            queries.assertStatementsAtMost(maxStatements).assertNoRepeatedShapes(2);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.econexion.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class UserListTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allUsersReturnsSummariesWithoutPassword() throws Exception {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into users (id, enterprise_name, name, nit, email, role, password) " +
+                "values (?, 'Reciclajes SAS', 'seller', '900123456', ?, 'SELLER', '$2a$10$hash')", id, id + "@econexion.test");
+
+        mockMvc.perform(get("/lab/users/allUsers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == '" + id + "')].enterpriseName").value("Reciclajes SAS"))
+                .andExpect(jsonPath("$..password").doesNotExist());
+    }
+}
@@ -0,0 +1,57 @@
+package io.econexion.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.econexion.TestData;
+import io.econexion.dtos.PostSummaryDTO;
+import io.econexion.model.User;
+import io.econexion.service.PostService;
+
+@SpringBootTest
+@Transactional
+class PostRepositoryTextFallbackTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    void seed() {
+        User seller = testData.user("SELLER");
+        insertPost(seller, "Lote_A de PET", "100% reciclado");
+        insertPost(seller, "Lote B de cartón", "Cartón limpio");
+    }
+
+    @Test
+    void underscoreIsMatchedLiterally() {
+        assertThat(postRepository.searchTextFallback(PostService.likePattern("_"), Limit.of(10)))
+                .extracting(PostSummaryDTO::getTitle)
+                .containsExactly("Lote_A de PET");
+    }
+
+    @Test
+    void percentIsMatchedLiterally() {
+        assertThat(postRepository.searchTextFallback(PostService.likePattern("100%"), Limit.of(10)))
+                .extracting(PostSummaryDTO::getTitle)
+                .containsExactly("Lote_A de PET");
+    }
+
+    @Test
+    void plainTextStillMatchesAnywhere() {
+        assertThat(postRepository.searchTextFallback(PostService.likePattern("LOTE"), Limit.of(10)))
+                .hasSize(2);
+    }
+
+    private void insertPost(User seller, String title, String description) {
+        testData.post(seller, title, p -> p.setDescription(description));
+    }
+}
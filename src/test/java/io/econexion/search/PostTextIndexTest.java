@@ -0,0 +1,144 @@
+package io.econexion.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import io.econexion.repository.PostRepository;
+import io.econexion.repository.PostTextView;
+
+class PostTextIndexTest {
+
+    private static final PlatformTransactionManager NO_TRANSACTIONS = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    // Posts "en la base de datos" y lo que hace cada lectura completa antes de devolverlos
+    private final List<PostTextView> rows = new ArrayList<>();
+    private final List<Consumer<PostTextIndex>> reads = new ArrayList<>();
+    private final AtomicInteger readCount = new AtomicInteger();
+    private PostTextIndex index;
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void failedBuildDropsQueuedChangesAndStopsQueueing() {
+        index = index(10);
+        reads.add(i -> {
+            throw new DataAccessResourceFailureException("database down");
+        });
+        index.index(UUID.randomUUID(), "Botellas PET", null);
+        assertThat(index.pendingChanges()).isEqualTo(1);
+
+        assertThat(index.rebuild()).isFalse();
+        index.index(UUID.randomUUID(), "Cartón corrugado", null);
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.pendingChanges()).isZero();
+
+        UUID saved = save("Botellas PET");
+        assertThat(index.rebuild()).isTrue();
+        assertThat(index.search("botellas", 10)).containsExactly(saved);
+    }
+
+    @Test
+    void changesDuringBuildReachTheNewIndex() {
+        index = index(10);
+        UUID[] during = new UUID[1];
+        reads.add(i -> during[0] = saveAndIndex(i, "Vidrio verde"));
+
+        assertThat(index.rebuild()).isTrue();
+
+        assertThat(readCount).hasValue(1);
+        assertThat(index.search("vidrio", 10)).containsExactly(during[0]);
+        assertThat(index.pendingChanges()).isZero();
+    }
+
+    @Test
+    void overflowingTheQueueBuildsAgain() {
+        index = index(2);
+        reads.add(i -> {
+            for (int n = 0; n < 3; n++) {
+                saveAndIndex(i, "Chatarra de aluminio " + n);
+            }
+        });
+
+        assertThat(index.rebuild()).isTrue();
+
+        // La primera lectura no veía los posts guardados mientras corría: se vuelve a leer
+        assertThat(readCount).hasValue(2);
+        assertThat(index.search("aluminio", 10)).hasSize(3);
+        assertThat(index.pendingChanges()).isZero();
+    }
+
+    private PostTextIndex index(int maxPending) {
+        PostRepository repository = (PostRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PostRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("streamAllText")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    // La lectura ve los posts que había al empezar
+                    List<PostTextView> snapshot = List.copyOf(rows);
+                    int read = readCount.getAndIncrement();
+                    if (read < reads.size()) {
+                        reads.get(read).accept(index);
+                    }
+                    return snapshot.stream();
+                });
+        return new PostTextIndex(repository, NO_TRANSACTIONS, maxPending);
+    }
+
+    private UUID save(String title) {
+        UUID id = UUID.randomUUID();
+        rows.add(new PostTextView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        });
+        return id;
+    }
+
+    private UUID saveAndIndex(PostTextIndex index, String title) {
+        UUID id = save(title);
+        index.index(id, title, null);
+        return id;
+    }
+}
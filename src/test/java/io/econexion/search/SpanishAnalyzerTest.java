@@ -0,0 +1,26 @@
+package io.econexion.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SpanishAnalyzerTest {
+
+    @Test
+    void foldsAccentsAndPlurals() {
+        assertThat(SpanishAnalyzer.analyze("Botellas de PLÁSTICO y cartones"))
+                .containsExactly("botella", "plastico", "carton");
+    }
+
+    @Test
+    void foldsPrecomposedAndDecomposedAlike() {
+        // "niño" en NFC y en NFD (n + tilde combinante) dan el mismo término
+        assertThat(SpanishAnalyzer.analyze("nin\u0303o")).containsExactly("nino");
+        assertThat(SpanishAnalyzer.analyze("niño")).containsExactly("nino");
+    }
+
+    @Test
+    void keepsAsciiTextAsIs() {
+        assertThat(SpanishAnalyzer.analyze("PET-1 lote_2")).containsExactly("pet", "1", "lote", "2");
+    }
+}
@@ -0,0 +1,59 @@
+package io.econexion.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TextIndexTest {
+
+    private static final UUID BOTTLES = UUID.randomUUID();
+    private static final UUID FLAKES = UUID.randomUUID();
+
+    private TextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex();
+        index.add(BOTTLES, "Botellas PET", "Lote compactado");
+        // Más apariciones de "pet": debe ir primero
+        index.add(FLAKES, "PET molido", "Escamas de PET limpio");
+        index.add(UUID.randomUUID(), "Cartón corrugado", "Cajas desarmadas");
+        index.add(UUID.randomUUID(), "Vidrio verde", "Botellas enteras");
+    }
+
+    @Test
+    void rankingSurvivesRepeatedUpdates() {
+        assertThat(index.search("pet", 10)).containsExactly(FLAKES, BOTTLES);
+
+        // Cada actualización deja un documento borrado en la lista de "pet" hasta compactar
+        for (int i = 0; i < 20; i++) {
+            index.add(BOTTLES, "Botellas PET", "Lote compactado");
+        }
+
+        assertThat(index.search("pet", 10)).containsExactly(FLAKES, BOTTLES);
+        assertThat(index.search("pet botellas", 1)).hasSize(1);
+    }
+
+    @Test
+    void compactionKeepsResults() {
+        // Más de 1000 borrados y más que documentos vivos: compacta
+        for (int i = 0; i < 1500; i++) {
+            index.add(BOTTLES, "Botellas PET", "Lote compactado");
+        }
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search("pet", 10)).containsExactly(FLAKES, BOTTLES);
+        assertThat(index.search("compactado", 10)).containsExactly(BOTTLES);
+    }
+
+    @Test
+    void removedPostsDropOut() {
+        index.remove(FLAKES);
+
+        assertThat(index.search("pet", 10)).containsExactly(BOTTLES);
+        assertThat(index.search("escamas", 10)).isEmpty();
+    }
+}
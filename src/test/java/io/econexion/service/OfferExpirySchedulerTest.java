@@ -0,0 +1,98 @@
+package io.econexion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.econexion.TestData;
+import io.econexion.model.Offer;
+import io.econexion.model.OfferStatus;
+import io.econexion.model.Post;
+import io.econexion.model.User;
+import io.econexion.repository.OfferRepository;
+import io.econexion.repository.PostRepository;
+
+@SpringBootTest
+@Transactional
+class OfferExpirySchedulerTest {
+
+    @Autowired
+    private OfferExpiryScheduler expiryScheduler;
+
+    @Autowired
+    private OfferService offerService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Post post;
+    private Offer older;
+    private Offer newer;
+    private Offer live;
+
+    @BeforeEach
+    void seed() {
+        post = testData.post(testData.user("SELLER"), "Botellas PET");
+        User buyer = testData.user("BUYER");
+        older = testData.offer(post, buyer, 700, o -> o.setExpiresAt(LocalDateTime.now().minusHours(2)));
+        newer = testData.offer(post, buyer, 750, o -> o.setExpiresAt(LocalDateTime.now().minusHours(1)));
+        live = testData.offer(post, buyer, 800, o -> o.setExpiresAt(LocalDateTime.now().plusDays(1)));
+        testData.flush();
+    }
+
+    @Test
+    void sweepDecrementsPendingOncePerOffer() {
+        assertThat(pendingOffers()).isEqualTo(3);
+
+        assertThat(expiryScheduler.expireDue()).isEqualTo(2);
+        assertThat(expiryScheduler.expireDue()).isZero();
+
+        assertThat(pendingOffers()).isEqualTo(1);
+        assertThat(status(older)).isEqualTo(OfferStatus.EXPIRED);
+        assertThat(status(newer)).isEqualTo(OfferStatus.EXPIRED);
+        assertThat(status(live)).isEqualTo(OfferStatus.PENDING);
+        assertThat(offerRepository.findStateById(older.getId()).orElseThrow().getVersion())
+                .isEqualTo(older.getVersion() + 1);
+        // Ya no está PENDING: rechazarla tampoco vuelve a descontar
+        assertThatThrownBy(() -> offerService.changeStatus(older.getId(), OfferStatus.REJECTED, null))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("EXPIRED");
+        assertThat(pendingOffers()).isEqualTo(1);
+    }
+
+    @Test
+    void batchesTakeTheOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(offerRepository.expirePending(now, 1)).isEqualTo(1);
+        assertThat(status(older)).isEqualTo(OfferStatus.EXPIRED);
+        assertThat(status(newer)).isEqualTo(OfferStatus.PENDING);
+        assertThat(pendingOffers()).isEqualTo(2);
+
+        assertThat(offerRepository.expirePending(now, 1)).isEqualTo(1);
+        assertThat(offerRepository.expirePending(now, 1)).isZero();
+        assertThat(pendingOffers()).isEqualTo(1);
+    }
+
+    private OfferStatus status(Offer offer) {
+        return offerRepository.findStateById(offer.getId()).orElseThrow().getStatus();
+    }
+
+    private long pendingOffers() {
+        return postRepository.findDetailById(post.getId()).orElseThrow().getOfferStats().getPending();
+    }
+}
@@ -0,0 +1,161 @@
+package io.econexion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.econexion.TestData;
+import io.econexion.dtos.CreateOfferDTO;
+import io.econexion.model.Offer;
+import io.econexion.model.OfferStatus;
+import io.econexion.model.Post;
+import io.econexion.model.User;
+import io.econexion.repository.OfferRepository;
+import io.econexion.repository.OfferRepository.OfferState;
+import io.econexion.repository.PostRepository;
+import jakarta.validation.Validator;
+
+@SpringBootTest
+@Transactional
+class OfferServiceTest {
+
+    private static final double[] INVALID_QUANTITIES = {-4, 0, Double.NaN, Double.POSITIVE_INFINITY};
+
+    @Autowired
+    private OfferService offerService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private Validator validator;
+
+    private Post post;
+    private User buyer;
+    private Offer offer;
+
+    @BeforeEach
+    void seed() {
+        post = testData.post(testData.user("SELLER"), "Botellas PET");
+        buyer = testData.user("BUYER");
+        offer = testData.offer(post, buyer, 800, o -> o.setQuantity(4.0));
+        testData.flush();
+    }
+
+    @Test
+    void acceptedOfferCannotThenBeRejected() {
+        long version = state(offer).getVersion();
+
+        assertThat(offerService.changeStatus(offer.getId(), OfferStatus.ACCEPTED, version))
+                .hasValueSatisfying(s -> {
+                    assertThat(s.getStatus()).isEqualTo(OfferStatus.ACCEPTED);
+                    assertThat(s.getVersion()).isEqualTo(version + 1);
+                });
+        assertThatThrownBy(() -> offerService.changeStatus(offer.getId(), OfferStatus.REJECTED, null))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("ACCEPTED");
+
+        assertThat(state(offer).getStatus()).isEqualTo(OfferStatus.ACCEPTED);
+        assertThat(state(offer).getVersion()).isEqualTo(version + 1);
+        // La reserva y el contador de pendientes se aplicaron una sola vez
+        assertThat(postRepository.findQuantityById(post.getId())).contains(6.0);
+        assertThat(pendingOffers()).isZero();
+    }
+
+    @Test
+    void staleVersionIsAConflict() {
+        long version = state(offer).getVersion();
+        Offer changes = new Offer();
+        changes.setId(offer.getId());
+        changes.setAmount(850);
+        offerService.updateOffer(changes);
+
+        assertThatThrownBy(() -> offerService.changeStatus(offer.getId(), OfferStatus.ACCEPTED, version))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("versión " + (version + 1));
+
+        assertThat(state(offer).getStatus()).isEqualTo(OfferStatus.PENDING);
+        assertThat(postRepository.findQuantityById(post.getId())).contains(10.0);
+        assertThat(pendingOffers()).isEqualTo(1);
+    }
+
+    @Test
+    void missingOfferIsNotFoundRatherThanAConflict() {
+        assertThat(offerService.changeStatus(UUID.randomUUID(), OfferStatus.ACCEPTED, null)).isEmpty();
+    }
+
+    @Test
+    void overdueOfferCannotBeAccepted() {
+        Offer overdue = testData.offer(post, buyer, 700, o -> {
+            o.setQuantity(2.0);
+            o.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        });
+        testData.flush();
+
+        // Todavía PENDING: el expirador no ha pasado, pero el UPDATE condicional ya la descarta
+        assertThat(offerRepository.transition(overdue.getId(), OfferStatus.PENDING, OfferStatus.ACCEPTED, null,
+                LocalDateTime.now())).isZero();
+        assertThatThrownBy(() -> offerService.changeStatus(overdue.getId(), OfferStatus.ACCEPTED, null))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("venció");
+
+        assertThat(state(overdue).getStatus()).isEqualTo(OfferStatus.PENDING);
+        assertThat(postRepository.findQuantityById(post.getId())).contains(10.0);
+        assertThat(pendingOffers()).isEqualTo(2);
+    }
+
+    @Test
+    void createRejectsNonPositiveQuantity() {
+        for (double bad : INVALID_QUANTITIES) {
+            assertThatThrownBy(() -> testData.offer(post, buyer, 800, o -> o.setQuantity(bad)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(testData.offer(post, buyer, 800).getQuantity()).isNull();
+    }
+
+    @Test
+    void updateRejectsNonPositiveQuantity() {
+        for (double bad : INVALID_QUANTITIES) {
+            Offer changes = new Offer();
+            changes.setId(offer.getId());
+            changes.setAmount(800);
+            changes.setQuantity(bad);
+            assertThatThrownBy(() -> offerService.updateOffer(changes)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(offerRepository.findStateById(offer.getId()).orElseThrow().getQuantity()).isEqualTo(4.0);
+    }
+
+    @Test
+    void createOfferDtoRequiresPositiveQuantity() {
+        CreateOfferDTO dto = new CreateOfferDTO();
+        dto.setQuantity(-1.0);
+        assertThat(validator.validate(dto)).hasSize(1);
+        dto.setQuantity(Double.NaN);
+        assertThat(validator.validate(dto)).hasSize(1);
+        dto.setQuantity(null);
+        assertThat(validator.validate(dto)).isEmpty();
+    }
+
+    private OfferState state(Offer offer) {
+        return offerRepository.findStateById(offer.getId()).orElseThrow();
+    }
+
+    private long pendingOffers() {
+        return postRepository.findDetailById(post.getId()).orElseThrow().getOfferStats().getPending();
+    }
+}
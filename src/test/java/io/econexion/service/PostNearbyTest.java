@@ -0,0 +1,57 @@
+package io.econexion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.econexion.TestData;
+import io.econexion.dtos.NearbyPostDTO;
+import io.econexion.model.User;
+
+@SpringBootTest
+@Transactional
+class PostNearbyTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    void seed() {
+        User seller = testData.user("SELLER");
+        insertPost(seller, "Chapinero", 4.6486, -74.0628);
+        insertPost(seller, "Usaquén", 4.7030, -74.0300);
+        insertPost(seller, "Medellín", 6.2442, -75.5812);
+    }
+
+    @Test
+    void rejectsNonFiniteCoordinates() {
+        for (double bad : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertThatThrownBy(() -> postService.nearby(bad, -74.0, null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> postService.nearby(4.6, bad, null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void returnsClosestFirstWithDistance() {
+        assertThat(postService.nearby(4.6500, -74.0600, 50.0, "PET", 10))
+                .extracting(NearbyPostDTO::getTitle)
+                .containsExactly("Chapinero", "Usaquén");
+        assertThat(postService.nearby(4.6500, -74.0600, 50.0, "PET", 1).get(0).getDistanceKm())
+                .isBetween(0.0, 1.0);
+    }
+
+    private void insertPost(User seller, String title, double lat, double lon) {
+        testData.post(seller, title, p -> {
+            p.setLatitude(lat);
+            p.setLongitude(lon);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package io.econexion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.econexion.TestData;
+import io.econexion.model.OfferStatus;
+import io.econexion.model.Post;
+import io.econexion.repository.PostRepository;
+
+@SpringBootTest
+@Transactional
+class PostQuantityTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private OfferService offerService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private UUID postId;
+    private UUID offerId;
+
+    @BeforeEach
+    void seed() {
+        Post post = testData.post(testData.user("SELLER"), "Botellas PET");
+        postId = post.getId();
+        offerId = testData.offer(post, testData.user("BUYER"), 800, o -> o.setQuantity(4.0)).getId();
+        testData.flush();
+    }
+
+    @Test
+    void updatePostDoesNotOverwriteReservedQuantity() {
+        // El cliente leyó el post con 10 unidades; mientras tanto se acepta una oferta de 4
+        Post stale = postRepository.findById(postId).orElseThrow();
+        offerService.changeStatus(offerId, OfferStatus.ACCEPTED, null);
+
+        stale.setTitle("Botellas PET compactadas");
+        postService.updatePost(stale);
+
+        assertThat(postRepository.findQuantityById(postId)).contains(6.0);
+    }
+
+    @Test
+    void adjustQuantityKeepsReservations() {
+        offerService.changeStatus(offerId, OfferStatus.ACCEPTED, null);
+
+        assertThat(postService.adjustQuantity(postId, 5)).contains(11.0);
+        assertThatThrownBy(() -> postService.adjustQuantity(postId, -12)).isInstanceOf(IllegalStateException.class);
+        assertThat(postService.adjustQuantity(UUID.randomUUID(), 1)).isEmpty();
+    }
+
+    @Test
+    void adjustQuantityRejectsNonFiniteDelta() {
+        assertThatThrownBy(() -> postService.adjustQuantity(postId, Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> postService.adjustQuantity(postId, Double.POSITIVE_INFINITY)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(postRepository.findQuantityById(postId)).contains(10.0);
+    }
+}
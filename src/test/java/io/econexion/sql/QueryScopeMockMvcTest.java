@@ -0,0 +1,107 @@
+package io.econexion.sql;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.econexion.TestData;
+import io.econexion.dtos.OfferSummaryDTO;
+import io.econexion.model.Post;
+import io.econexion.model.User;
+import io.econexion.repository.OfferRepository;
+import io.econexion.repository.PostRepository;
+
+/**
+ * Las aserciones de {@link QueryScope} sobre peticiones MockMvc: detectan un N+1 hecho a
+ * propósito y dejan pasar los endpoints que leen proyecciones.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(QueryScopeMockMvcTest.NPlusOneController.class)
+@Transactional
+class QueryScopeMockMvcTest {
+
+    private static final int POSTS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    private UUID postId;
+
+    /**
+     * Una consulta de ofertas por cada post: el N+1 de manual.
+     */
+    @RestController
+    static class NPlusOneController {
+
+        @Autowired
+        private PostRepository postRepository;
+
+        @Autowired
+        private OfferRepository offerRepository;
+
+        @GetMapping("/test/n-plus-one")
+        List<List<OfferSummaryDTO>> offersPerPost() {
+            return postRepository.findAll().stream()
+                    .map(p -> offerRepository.findSummariesByPostId(p.getId(), Limit.of(5)))
+                    .toList();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        User seller = testData.user("SELLER");
+        User buyer = testData.user("BUYER");
+        for (int i = 0; i < POSTS; i++) {
+            Post post = testData.post(seller, "Botellas PET " + i);
+            postId = post.getId();
+            for (int j = 0; j < 3; j++) {
+                testData.offer(post, buyer, 800 + j);
+            }
+        }
+        testData.flush();
+    }
+
+    @Test
+    void deliberateNPlusOneFailsBothAssertions() throws Exception {
+        try (QueryScope queries = QueryScope.open()) {
+            mockMvc.perform(get("/test/n-plus-one")).andExpect(status().isOk());
+
+            assertThatThrownBy(() -> queries.assertStatementsAtMost(5))
+                    .isInstanceOf(AssertionError.class);
+            assertThatThrownBy(() -> queries.assertNoRepeatedShapes(5))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("N+1");
+        }
+    }
+
+    @Test
+    void projectionEndpointsPass() throws Exception {
+        try (QueryScope queries = QueryScope.open()) {
+            mockMvc.perform(get("/posts/{id}", postId)).andExpect(status().isOk());
+            queries.assertStatementsAtMost(2).assertNoRepeatedShapes(2);
+        }
+        try (QueryScope queries = QueryScope.open()) {
+            mockMvc.perform(get("/posts/{id}/offers", postId)).andExpect(status().isOk());
+            queries.assertStatementsAtMost(2).assertNoRepeatedShapes(2);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.econexion.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class QueryScopeTest {
+
+    private static final String BY_ID = "select * from offers where id = ?";
+
+    @AfterEach
+    void noScopeLeaks() {
+        assertThat(QueryScope.current()).isNull();
+    }
+
+    @Test
+    void statementsOutsideAnyScopeAreIgnored() {
+        QueryScope.record(BY_ID, 1);
+        try (QueryScope scope = QueryScope.open()) {
+            assertThat(scope.statementCount()).isZero();
+        }
+    }
+
+    @Test
+    void nestedStatementsCountInEveryEnclosingScope() {
+        try (QueryScope outer = QueryScope.open()) {
+            QueryScope.record(BY_ID, 10);
+            try (QueryScope inner = QueryScope.open()) {
+                assertThat(QueryScope.current()).isSameAs(inner);
+                QueryScope.record(BY_ID, 5);
+                assertThat(inner.statementCount()).isEqualTo(1);
+                assertThat(inner.elapsedNanos()).isEqualTo(5);
+            }
+            assertThat(QueryScope.current()).isSameAs(outer);
+            QueryScope.record(BY_ID, 1);
+            assertThat(outer.statementCount()).isEqualTo(3);
+            assertThat(outer.elapsedNanos()).isEqualTo(16);
+            assertThat(outer.maxRepetitions()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void closingTheOuterScopeAlsoDropsAForgottenInnerOne() {
+        QueryScope outer = QueryScope.open();
+        QueryScope inner = QueryScope.open();
+        outer.close();
+        assertThat(QueryScope.current()).isNull();
+
+        // Cerrar después el interno no reactiva el externo
+        inner.close();
+        assertThat(QueryScope.current()).isNull();
+        QueryScope.record(BY_ID, 1);
+        assertThat(outer.statementCount()).isZero();
+    }
+
+    @Test
+    void closingTwiceIsHarmless() {
+        try (QueryScope outer = QueryScope.open()) {
+            QueryScope inner = QueryScope.open();
+            inner.close();
+            inner.close();
+            assertThat(QueryScope.current()).isSameAs(outer);
+        }
+    }
+
+    @Test
+    void assertionsReportTheRepeatedShape() {
+        try (QueryScope scope = QueryScope.open()) {
+            for (int i = 0; i < 3; i++) {
+                QueryScope.record("select * from offers where id = '" + i + "'", 1);
+            }
+            QueryScope.record("select count(*) from publications", 1);
+
+            scope.assertStatementsAtMost(4).assertNoRepeatedShapes(4);
+            assertThatThrownBy(() -> scope.assertStatementsAtMost(3))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("4 were executed");
+            assertThatThrownBy(() -> scope.assertNoRepeatedShapes(3))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("3x select * from offers where id = ?");
+        }
+    }
+}
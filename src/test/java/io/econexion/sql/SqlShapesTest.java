@@ -0,0 +1,47 @@
+package io.econexion.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlShapesTest {
+
+    @Test
+    void replacesLiterals() {
+        assertThat(SqlShapes.shapeOf("select * from offers where amount > 850.5 and status = 'PENDING' limit 10"))
+                .isEqualTo("select * from offers where amount > ? and status = ? limit ?");
+    }
+
+    @Test
+    void keepsEscapedQuotesInsideOneLiteral() {
+        assertThat(SqlShapes.shapeOf("select * from publications where title = 'O''Brien lote 2'"))
+                .isEqualTo("select * from publications where title = ?");
+    }
+
+    @Test
+    void doesNotTouchDigitsInsideIdentifiers() {
+        assertThat(SqlShapes.shapeOf("select p1_0.id from publications p1_0 where p1_0.id = ?"))
+                .isEqualTo("select p1_0.id from publications p1_0 where p1_0.id = ?");
+    }
+
+    @Test
+    void collapsesInListsOfAnyLength() {
+        String two = SqlShapes.shapeOf("select * from publications where id in (?, ?)");
+        String many = SqlShapes.shapeOf("select * from publications where id in (?,?,?,?,?)");
+        String literals = SqlShapes.shapeOf("select * from publications where id in (1, 2, 3)");
+        assertThat(two).isEqualTo("select * from publications where id in (?)");
+        assertThat(many).isEqualTo(two);
+        assertThat(literals).isEqualTo(two);
+    }
+
+    @Test
+    void collapsesWhitespace() {
+        assertThat(SqlShapes.shapeOf("  select *\n\tfrom   offers\r\n where id = ?  "))
+                .isEqualTo("select * from offers where id = ?");
+    }
+
+    @Test
+    void nullHasAShape() {
+        assertThat(SqlShapes.shapeOf(null)).isEqualTo("?");
+    }
+}